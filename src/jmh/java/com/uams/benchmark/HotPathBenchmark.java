@@ -0,0 +1,115 @@
+package com.uams.benchmark;
+
+import com.uams.controller.UserController;
+import com.uams.model.Order;
+import com.uams.model.User;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
+import com.uams.service.OrderSearchCriteria;
+import com.uams.service.OrderService;
+import com.uams.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.servlet.mvc.support.RedirectAttributesModelMap;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency of the request paths that dominate production traffic, measured below
+ * the HTTP layer against a {@link SeededApplication}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotPathBenchmark {
+
+    private UserService userService;
+    private OrderService orderService;
+    private UserController userController;
+    private ITemplateEngine templateEngine;
+    private MockServletContext servletContext;
+    private KeysetPage<User> userPage;
+    private AtomicInteger nextUser;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededApplication application) {
+        userService = application.bean(UserService.class);
+        orderService = application.bean(OrderService.class);
+        userController = application.bean(UserController.class);
+        templateEngine = application.bean(ITemplateEngine.class);
+        servletContext = new MockServletContext();
+        userPage = userService.getUsersPage(KeysetPageRequest.of(null, KeysetPageRequest.MAX_SIZE, null, "asc"));
+        nextUser = new AtomicInteger(application.users);
+    }
+
+    @Benchmark
+    public User saveUser() {
+        int index = nextUser.getAndIncrement();
+        User user = new User();
+        user.setEmail(SeededApplication.email(index));
+        user.setFirstName("First" + index);
+        user.setLastName("Last" + index);
+        user.setPassword("password");
+        return userService.saveUser(user);
+    }
+
+    @Benchmark
+    public Optional<User> findByEmail(SeededApplication application) {
+        return userService.findByEmail(SeededApplication.email(ThreadLocalRandom.current().nextInt(application.users)));
+    }
+
+    @Benchmark
+    public String addAddressToUser(SeededApplication application) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long userId = application.userIds.get(random.nextInt(application.userIds.size()));
+        Long addressId = application.addressIds.get(random.nextInt(application.addressIds.size()));
+        return userController.addAddressToUser(userId, addressId, new RedirectAttributesModelMap());
+    }
+
+    @Benchmark
+    public KeysetPage<Order> listOrders() {
+        return orderService.getOrdersPage(KeysetPageRequest.of(null, KeysetPageRequest.DEFAULT_SIZE, "email", "asc"));
+    }
+
+    @Benchmark
+    public KeysetPage<Order> searchOrdersByEmail(SeededApplication application) {
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.setEmail(SeededApplication.email(ThreadLocalRandom.current().nextInt(application.users)));
+        return orderService.searchOrders(criteria, KeysetPageRequest.firstPage());
+    }
+
+    @Benchmark
+    public String renderUserList() {
+        Map<String, Object> model = new HashMap<>();
+        List<User> users = userPage.getContent();
+        model.put("users", users);
+        model.put("page", userPage);
+        WebContext context = new WebContext(new MockHttpServletRequest(servletContext, "GET", "/users"),
+                new MockHttpServletResponse(), servletContext, Locale.ENGLISH, model);
+        return templateEngine.process("user/list", context);
+    }
+}
@@ -0,0 +1,145 @@
+package com.uams.benchmark;
+
+import com.uams.UserAddressManagementSystemApplication;
+import com.uams.model.User;
+import com.uams.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of request handling on platform and virtual threads: 400 concurrent clients
+ * against the JSON user list, served over HTTP by the embedded Tomcat while every
+ * statement takes {@code dbLatencyMs}. With platform threads at most
+ * {@code server.tomcat.threads.max} (200) requests are in progress at once; with virtual
+ * threads the connection pool is the limit. After each trial it prints, over the
+ * measurement iterations, the peak number of platform threads (which includes JMH's 400
+ * client threads) and the most Tomcat worker threads ({@code http-nio-*-exec-*}) alive
+ * at the end of an iteration; Tomcat keeps idle workers for a minute, so that is close
+ * to their peak. Virtual request threads are not platform threads and count in neither.
+ * <p>
+ * Virtual threads need a Java 21 runtime; on older runtimes the {@code virtual} trial fails
+ * at startup and JMH moves on:
+ * {@code mvn -Pbenchmark -DskipTests verify -Djmh.args="RequestThreads -p mode=platform,virtual"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(400)
+public class RequestThreadsBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param("50")
+    public int dbLatencyMs;
+
+    @Param("400")
+    public int poolSize;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+    private int peakThreads;
+    private long workerThreads;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(UserAddressManagementSystemApplication.class, SlowDatabase.class)
+                .logStartupInfo(false)
+                // as arguments, so they override application.properties
+                .run("--server.port=0",
+                        "--uams.web.request-threads=" + mode,
+                        "--benchmark.db-latency-ms=" + dbLatencyMs,
+                        "--spring.datasource.url=jdbc:h2:mem:request-threads;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "--spring.datasource.hikari.minimum-idle=" + poolSize,
+                        "--spring.datasource.hikari.connection-timeout=60000",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.root=WARN");
+        seed();
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/users?size=20"))
+                .timeout(Duration.ofSeconds(60))
+                .build();
+    }
+
+    // Setup and warmup threads would otherwise count towards the peak
+    @Setup(Level.Iteration)
+    public void resetPeakThreads(IterationParams iteration) {
+        if (iteration.getType() == IterationType.MEASUREMENT) {
+            ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void recordThreads(IterationParams iteration) {
+        if (iteration.getType() == IterationType.MEASUREMENT) {
+            peakThreads = Math.max(peakThreads, ManagementFactory.getThreadMXBean().getPeakThreadCount());
+            workerThreads = Math.max(workerThreads, Thread.getAllStackTraces().keySet().stream()
+                    .map(Thread::getName)
+                    .filter(name -> name.startsWith("http-nio-") && name.contains("-exec-"))
+                    .count());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        System.out.printf("%n[%s] peak platform threads: %d, Tomcat worker threads: %d%n", mode, peakThreads, workerThreads);
+        context.close();
+    }
+
+    @Benchmark
+    public int listUsers() throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /api/v1/users returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private void seed() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            User user = new User();
+            user.setEmail(SeededApplication.email(i));
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setPassword("password");
+            users.add(user);
+        }
+        context.getBean(UserService.class).saveAllUsers(users);
+    }
+}
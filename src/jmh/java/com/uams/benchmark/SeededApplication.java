@@ -0,0 +1,127 @@
+package com.uams.benchmark;
+
+import com.uams.UserAddressManagementSystemApplication;
+import com.uams.model.Address;
+import com.uams.model.Order;
+import com.uams.model.User;
+import com.uams.repository.OrderRepository;
+import com.uams.service.AddressService;
+import com.uams.service.UserService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The application context on an embedded H2 database (MySQL mode, schema from the
+ * Flyway migrations), seeded once per trial. Data volumes are JMH parameters, e.g.
+ * {@code -p users=100000 -p ordersPerUser=5}.
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Param("10000")
+    public int users;
+
+    @Param("2")
+    public int ordersPerUser;
+
+    ConfigurableApplicationContext context;
+    List<Long> userIds;
+    List<Long> addressIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(UserAddressManagementSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(
+                        // a fresh database per parameter combination
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + users + "-" + ordersPerUser
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        // render with cached templates, as in production
+                        "spring.thymeleaf.cache=true",
+                        "logging.level.root=WARN")
+                .run();
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    static String email(int index) {
+        return "user" + index + "@example.com";
+    }
+
+    private void seed() {
+        UserService userService = bean(UserService.class);
+        AddressService addressService = bean(AddressService.class);
+        OrderRepository orderRepository = bean(OrderRepository.class);
+        userIds = new ArrayList<>(users);
+        addressIds = new ArrayList<>(users);
+
+        for (int start = 0; start < users; start += CHUNK_SIZE) {
+            int end = Math.min(start + CHUNK_SIZE, users);
+            List<User> userChunk = new ArrayList<>(end - start);
+            List<Address> addressChunk = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                userChunk.add(user(i));
+                addressChunk.add(address(i));
+            }
+            userChunk = userService.saveAllUsers(userChunk);
+            addressChunk = addressService.saveAllAddresses(addressChunk);
+
+            List<Order> orderChunk = new ArrayList<>((end - start) * ordersPerUser);
+            for (int i = 0; i < userChunk.size(); i++) {
+                User user = userChunk.get(i);
+                userIds.add(user.getUserId());
+                addressIds.add(addressChunk.get(i).getAddressId());
+                for (int n = 0; n < ordersPerUser; n++) {
+                    orderChunk.add(new Order(user, addressChunk.get(i), user.getEmail(),
+                            "ORD-" + user.getUserId() + "-" + n, LocalDateTime.now().minusDays(n),
+                            n % 2 == 0 ? "NEW" : "SHIPPED", BigDecimal.valueOf(1000 + n, 2)));
+                }
+            }
+            orderRepository.saveAll(orderChunk);
+        }
+    }
+
+    private static User user(int index) {
+        User user = new User();
+        user.setEmail(email(index));
+        user.setFirstName("First" + index);
+        user.setLastName("Last" + index);
+        user.setMobileNumber("555" + index);
+        user.setPassword("password");
+        return user;
+    }
+
+    private static Address address(int index) {
+        Address address = new Address();
+        address.setStreet(index + " Main St");
+        address.setCity("City" + index % 100);
+        address.setState("State" + index % 10);
+        address.setPincode(String.valueOf(100000 + index % 1000));
+        return address;
+    }
+}
@@ -0,0 +1,58 @@
+package com.uams.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Adds {@code benchmark.db-latency-ms} to every statement execution, while the connection
+ * is held, so the embedded database responds like a remote one under load.
+ */
+@Configuration
+class SlowDatabase {
+
+    @Bean
+    static BeanPostProcessor slowDataSource(Environment environment) {
+        long latencyMillis = environment.getProperty("benchmark.db-latency-ms", Long.class, 0L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (latencyMillis > 0 && bean instanceof DataSource && "dataSource".equals(beanName)) {
+                    return proxy(DataSource.class, bean, latencyMillis);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, long latencyMillis) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().startsWith("execute") && target instanceof Statement) {
+                Thread.sleep(latencyMillis);
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Connection) {
+                return proxy(Connection.class, result, latencyMillis);
+            }
+            if (result instanceof Statement && method.getReturnType().isInterface()) {
+                return proxy((Class<Statement>) method.getReturnType(), result, latencyMillis);
+            }
+            return result;
+        };
+        return (T) Proxy.newProxyInstance(SlowDatabase.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,109 @@
+package com.uams.benchmark;
+
+import com.uams.model.Order;
+import com.uams.model.Product;
+import com.uams.service.InsufficientStockException;
+import com.uams.service.OrderService;
+import com.uams.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checkouts from 16 threads competing for {@code hotProducts} products, each starting
+ * the iteration with {@code initialStock} units, so they sell out during it. After every
+ * iteration the stock left plus the quantity sold must equal the initial stock, and the
+ * stock must not be negative; otherwise the run fails with "Oversold".
+ * <p>
+ * The threads stay below the 20 pooled connections: a checkout holds one for its
+ * transaction, and allocating a new block of ids from {@code id_generator} takes another.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class StockReservationBenchmark {
+
+    @Param("4")
+    public int hotProducts;
+
+    @Param("100")
+    public int initialStock;
+
+    private OrderService orderService;
+    private ProductService productService;
+    private JdbcTemplate jdbcTemplate;
+    private List<Product> products;
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp(SeededApplication application) {
+        orderService = application.bean(OrderService.class);
+        productService = application.bean(ProductService.class);
+        jdbcTemplate = application.bean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void restock() {
+        List<Product> restocked = new ArrayList<>(hotProducts);
+        for (int i = 0; i < hotProducts; i++) {
+            restocked.add(new Product("Hot " + i, null, new BigDecimal("9.99"), initialStock, "Benchmark", null));
+        }
+        products = productService.saveAllProducts(restocked);
+        rejected.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void verifyNoOverselling() {
+        for (Product product : products) {
+            int stock = jdbcTemplate.queryForObject("select stock_quantity from products where product_id = ?",
+                    Integer.class, product.getProductId());
+            int sold = jdbcTemplate.queryForObject("select coalesce(sum(quantity), 0) from order_lines where product_id = ?",
+                    Integer.class, product.getProductId());
+            if (stock < 0 || stock + sold != initialStock) {
+                throw new IllegalStateException("Oversold product " + product.getProductId() + ": " + sold
+                        + " sold, " + stock + " left of " + initialStock);
+            }
+        }
+        System.out.printf("%n%d checkouts rejected for lack of stock%n", rejected.get());
+    }
+
+    @Benchmark
+    public Order checkout() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Order order = new Order(null, null, "checkout@example.com", null, LocalDateTime.now(), "NEW", null);
+        order.addLine(products.get(random.nextInt(hotProducts)), 1 + random.nextInt(3));
+        if (random.nextBoolean()) {
+            order.addLine(products.get(random.nextInt(hotProducts)), 1);
+        }
+        try {
+            return orderService.placeOrder(order);
+        } catch (InsufficientStockException e) {
+            rejected.incrementAndGet();
+            return order;
+        }
+    }
+}
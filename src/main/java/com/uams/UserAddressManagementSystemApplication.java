@@ -1,12 +1,15 @@
 package com.uams;
 
+import com.uams.repository.SimpleKeysetRepository;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication
+@EnableJpaRepositories(repositoryBaseClass = SimpleKeysetRepository.class)
 public class UserAddressManagementSystemApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(UserAddressManagementSystemApplication.class, args);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package com.uams.config;
+
+import com.uams.service.AddressDeduplicationJob;
+import com.uams.service.AddressDeduplicationProperties;
+import com.uams.service.AddressDeduplicationService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AddressDeduplicationProperties.class)
+public class AddressDeduplicationConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "uams.address-deduplication", name = "enabled", havingValue = "true")
+    public AddressDeduplicationJob addressDeduplicationJob(AddressDeduplicationService deduplicationService,
+                                                           AddressDeduplicationProperties properties) {
+        AddressDeduplicationJob job = new AddressDeduplicationJob(deduplicationService, properties.getBatchSize(),
+                properties.getBatchDelay());
+        job.start();
+        return job;
+    }
+}
@@ -0,0 +1,20 @@
+package com.uams.config;
+
+import com.uams.datasource.PoolProperties;
+import com.uams.datasource.PoolSaturationMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PoolProperties.class)
+public class ConnectionPoolConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolSaturationMonitor poolSaturationMonitor(MeterRegistry meterRegistry, PoolProperties properties) {
+        PoolSaturationMonitor monitor = new PoolSaturationMonitor(meterRegistry, properties.getSaturationThreshold());
+        monitor.start(properties.getCheckInterval());
+        return monitor;
+    }
+}
@@ -0,0 +1,27 @@
+package com.uams.config;
+
+import com.uams.service.BulkDeletionService;
+import com.uams.service.DeletionProperties;
+import com.uams.service.SoftDeletePurger;
+import com.uams.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(DeletionProperties.class)
+public class DeletionConfig {
+
+    // Nothing is soft-deleted in hard mode, so there is nothing to purge
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "uams.deletion", name = "mode", havingValue = "soft")
+    public SoftDeletePurger softDeletePurger(BulkDeletionService deletionService, UserService userService,
+                                            MeterRegistry meterRegistry, DeletionProperties properties) {
+        SoftDeletePurger purger = new SoftDeletePurger(deletionService, userService, meterRegistry,
+                properties.getPurgeBatchSize(), properties.getPurgeBatchDelay());
+        purger.start(properties.getPurgeInterval());
+        return purger;
+    }
+}
@@ -0,0 +1,48 @@
+package com.uams.config;
+
+import com.uams.metrics.MethodTimingAspect;
+import com.uams.metrics.QueryInspectionInterceptor;
+import com.uams.metrics.QueryInspectionProperties;
+import com.uams.metrics.QueryStatsRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(QueryInspectionProperties.class)
+public class MetricsConfig {
+
+    @Bean
+    public MethodTimingAspect methodTimingAspect(MeterRegistry meterRegistry) {
+        return new MethodTimingAspect(meterRegistry);
+    }
+
+    @Bean
+    public QueryStatsRecorder queryStatsRecorder() {
+        return new QueryStatsRecorder();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryStatsCustomizer(QueryStatsRecorder queryStatsRecorder) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryStatsRecorder);
+            properties.put(AvailableSettings.INTERCEPTOR, queryStatsRecorder.entityLoadInterceptor());
+        };
+    }
+
+    @Bean
+    public WebMvcConfigurer queryInspectionConfigurer(QueryStatsRecorder queryStatsRecorder, MeterRegistry meterRegistry,
+                                                      QueryInspectionProperties properties) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new QueryInspectionInterceptor(queryStatsRecorder, meterRegistry, properties));
+            }
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.uams.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uams.ingest.OrderIngestionProperties;
+import com.uams.ingest.OrderIngestionQueue;
+import com.uams.ingest.OrderWriteAheadLog;
+import com.uams.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Queued, batched order ingestion, enabled with {@code uams.order-ingestion.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "uams.order-ingestion", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(OrderIngestionProperties.class)
+public class OrderIngestionConfig {
+
+    @Bean(destroyMethod = "close")
+    public OrderIngestionQueue orderIngestionQueue(OrderService orderService, ObjectMapper objectMapper,
+                                                   MeterRegistry meterRegistry, OrderIngestionProperties properties)
+            throws IOException {
+        OrderWriteAheadLog writeAheadLog = new OrderWriteAheadLog(properties.getWalDirectory(), objectMapper,
+                properties.isFsync());
+        OrderIngestionQueue queue = new OrderIngestionQueue(orderService, writeAheadLog, properties, meterRegistry);
+        queue.start();
+        return queue;
+    }
+}
@@ -0,0 +1,93 @@
+package com.uams.config;
+
+import com.uams.datasource.ReplicaLagMonitor;
+import com.uams.datasource.ReplicaProperties;
+import com.uams.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured data source once {@code uams.datasource.replicas} lists
+ * at least one replica: {@code spring.datasource} stays the primary, and read-only
+ * transactions are routed to the replicas that keep up with it.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "uams.datasource", name = "replicas[0].url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                                             ReplicaProperties properties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaProperties.Replica> configured = properties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            replicas.put("replica-" + (i + 1), replicaDataSource("replica-" + (i + 1), configured.get(i), primary));
+        }
+        ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(primary, replicas, properties.getMaxLag(), Clock.systemUTC());
+        lagMonitor.start(properties.getHeartbeatInterval());
+        return new ReplicaRoutingDataSource(primary, replicas, lagMonitor);
+    }
+
+    /**
+     * The data source used by JPA, Flyway and JDBC. Defers choosing the physical
+     * connection until the first statement, when the transaction's read-only flag is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Publishes the replica pools' {@code hikaricp.connections.*} metrics; Spring Boot only
+     * instruments the pools that are beans, which here is just the primary.
+     */
+    @Bean
+    public MeterBinder replicaPoolMetrics(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return registry -> replicaRoutingDataSource.getResolvedDataSources().values().stream()
+                .filter(HikariDataSource.class::isInstance)
+                .map(HikariDataSource.class::cast)
+                .filter(dataSource -> dataSource.getMetricsTrackerFactory() == null)
+                .forEach(dataSource -> dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    }
+
+    /**
+     * A replica pool with the primary's settings ({@code spring.datasource.hikari.*}),
+     * apart from the connection details.
+     */
+    private static HikariDataSource replicaDataSource(String name, ReplicaProperties.Replica replica, HikariDataSource primary) {
+        HikariDataSource dataSource = new HikariDataSource();
+        primary.copyStateTo(dataSource);
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(replica.getUsername());
+        dataSource.setPassword(replica.getPassword());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+}
@@ -1,12 +1,25 @@
 package com.uams.controller;
 
+import com.uams.dto.AddressListItem;
+import com.uams.dto.AddressPatch;
 import com.uams.model.Address;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
 import com.uams.service.AddressService;
+import com.uams.service.ExportFormat;
+import com.uams.service.ExportService;
+import com.uams.service.ImportResult;
+import com.uams.service.ImportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,7 +27,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 
 import javax.validation.Valid;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Optional;
 
 @Controller
@@ -23,20 +37,30 @@ import java.util.Optional;
 public class AddressController {
 
     private final AddressService addressService;
+    private final ImportService importService;
+    private final ExportService exportService;
 
     @Autowired
-    public AddressController(AddressService addressService) {
+    public AddressController(AddressService addressService, ImportService importService, ExportService exportService) {
         this.addressService = addressService;
+        this.importService = importService;
+        this.exportService = exportService;
     }
 
     @Operation(
         summary = "List all addresses",
-        description = "Returns a page displaying all addresses in the system"
+        description = "Returns a keyset-paginated page of addresses, optionally sorted by city, state, pincode or street"
     )
     @GetMapping
-    public String listAddresses(Model model) {
-        List<Address> addresses = addressService.getAllAddresses();
-        model.addAttribute("addresses", addresses);
+    public String listAddresses(
+        @Parameter(description = "ID of the last address on the previous page") @RequestParam(required = false) Long after,
+        @RequestParam(defaultValue = "20") int size,
+        @RequestParam(defaultValue = KeysetPageRequest.PRIMARY_KEY) String sort,
+        @RequestParam(defaultValue = "asc") String dir,
+        Model model) {
+        KeysetPage<AddressListItem> page = addressService.getAddressListPage(KeysetPageRequest.of(after, size, sort, dir));
+        model.addAttribute("addresses", page.getContent());
+        model.addAttribute("page", page);
         return "address/list";
     }
 
@@ -58,11 +82,48 @@ public class AddressController {
             return "address/form";
         }
         
-        addressService.saveAddress(address);
+        // An identical address is returned, rather than stored a second time
+        if (addressService.saveAddress(address) != address) {
+            redirectAttributes.addFlashAttribute("successMessage", "This address already exists.");
+            return "redirect:/addresses";
+        }
         redirectAttributes.addFlashAttribute("successMessage", "Address created successfully!");
         return "redirect:/addresses";
     }
 
+    @Operation(
+        summary = "Bulk import addresses",
+        description = "Streams a CSV file with a header row into the database in batched chunks and reports rows/sec"
+    )
+    @PostMapping("/import")
+    public String importAddresses(@RequestParam("file") MultipartFile file, RedirectAttributes redirectAttributes) {
+        try (InputStream csv = file.getInputStream()) {
+            ImportResult result = importService.importAddresses(csv);
+            redirectAttributes.addFlashAttribute("successMessage", result.getSummary());
+            if (!result.getErrors().isEmpty()) {
+                redirectAttributes.addFlashAttribute("errorMessage", String.join("; ", result.getErrors()));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Import failed: " + e.getMessage());
+        }
+        return "redirect:/addresses";
+    }
+
+    @Operation(
+        summary = "Export addresses",
+        description = "Streams every address as CSV (format=csv) or JSON lines (format=jsonl) without loading the table into memory"
+    )
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAddresses(@RequestParam(defaultValue = "csv") String format) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ExportResponses.attachment("addresses", exportFormat, out -> exportService.exportAddresses(exportFormat, out));
+    }
+
     @GetMapping("/{id}/edit")
     public String showEditForm(@PathVariable Long id, Model model) {
         Optional<Address> addressOpt = addressService.getAddressById(id);
@@ -87,7 +148,18 @@ public class AddressController {
         }
         
         address.setAddressId(id);
-        addressService.saveAddress(address);
+        // One versioned UPDATE instead of merging the detached address
+        try {
+            if (!addressService.updateAddress(id, AddressPatch.of(address))) {
+                return "redirect:/addresses";
+            }
+        } catch (OptimisticLockingFailureException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "The address was changed by someone else; please edit it again.");
+            return "redirect:/addresses";
+        } catch (DataIntegrityViolationException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "An identical address already exists.");
+            return "redirect:/addresses";
+        }
         redirectAttributes.addFlashAttribute("successMessage", "Address updated successfully!");
         return "redirect:/addresses";
     }
@@ -0,0 +1,29 @@
+package com.uams.controller;
+
+import com.uams.service.ExportFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Builds the download responses for the streaming export endpoints.
+ */
+final class ExportResponses {
+
+    private ExportResponses() {
+    }
+
+    /**
+     * The body is written on an MVC async thread after the handler returns, so rows
+     * reach the client while they are still being read from the database.
+     */
+    static ResponseEntity<StreamingResponseBody> attachment(String baseName, ExportFormat format,
+                                                            StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + baseName + "." + format.getFileExtension() + "\"")
+                .body(body);
+    }
+}
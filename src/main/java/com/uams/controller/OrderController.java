@@ -1,12 +1,30 @@
 package com.uams.controller;
 
+import com.uams.dto.OrderListItem;
+import com.uams.ingest.OrderIngestionQueue;
+import com.uams.ingest.OrderQueueFullException;
 import com.uams.model.Order;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
+import com.uams.service.ExportFormat;
+import com.uams.service.ExportService;
+import com.uams.service.OrderSearchCriteria;
 import com.uams.service.OrderService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.servlet.http.HttpServletRequest;
+
 import java.time.LocalDateTime;
 
 @Controller
@@ -14,18 +32,64 @@ import java.time.LocalDateTime;
 public class OrderController {
 
     private final OrderService orderService;
+    private final ExportService exportService;
+    private final ObjectProvider<OrderIngestionQueue> ingestionQueue;
 
     @Autowired
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, ExportService exportService,
+                           ObjectProvider<OrderIngestionQueue> ingestionQueue) {
         this.orderService = orderService;
+        this.exportService = exportService;
+        this.ingestionQueue = ingestionQueue;
     }
 
     @GetMapping
-    public String listOrders(Model model) {
-        model.addAttribute("orders", orderService.getAllOrders());
+    public String listOrders(@RequestParam(required = false) Long after,
+                             @RequestParam(defaultValue = "20") int size,
+                             @RequestParam(defaultValue = KeysetPageRequest.PRIMARY_KEY) String sort,
+                             @RequestParam(defaultValue = "asc") String dir,
+                             Model model) {
+        KeysetPage<OrderListItem> page = orderService.searchOrderList(new OrderSearchCriteria(), KeysetPageRequest.of(after, size, sort, dir));
+        model.addAttribute("orders", page.getContent());
+        model.addAttribute("page", page);
+        model.addAttribute("criteria", new OrderSearchCriteria());
+        return "order/list";
+    }
+
+    @GetMapping("/search")
+    public String searchOrders(@ModelAttribute("criteria") OrderSearchCriteria criteria,
+                               @RequestParam(required = false) Long after,
+                               @RequestParam(defaultValue = "20") int size,
+                               @RequestParam(defaultValue = "orderDate") String sort,
+                               @RequestParam(defaultValue = "desc") String dir,
+                               HttpServletRequest request,
+                               Model model) {
+        KeysetPage<OrderListItem> page = orderService.searchOrderList(criteria, KeysetPageRequest.of(after, size, sort, dir));
+        model.addAttribute("orders", page.getContent());
+        model.addAttribute("page", page);
+        // Pager and sort links keep the filters and replace only the paging parameters
+        model.addAttribute("searchPath", UriComponentsBuilder.fromPath("/orders/search")
+                .query(request.getQueryString())
+                .replaceQueryParam("after")
+                .replaceQueryParam("size")
+                .replaceQueryParam("sort")
+                .replaceQueryParam("dir")
+                .build(true)
+                .toUriString());
         return "order/list";
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(defaultValue = "csv") String format) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ExportResponses.attachment("orders", exportFormat, out -> exportService.exportOrders(exportFormat, out));
+    }
+
     @GetMapping("/new")
     public String newOrderForm(Model model) {
         model.addAttribute("order", new Order());
@@ -33,10 +97,23 @@ public class OrderController {
     }
 
     @PostMapping
-public String saveOrder(@ModelAttribute Order order, @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm") @RequestParam(required = false) LocalDateTime orderDate) {
-    if (orderDate != null) {
-        order.setOrderDate(orderDate);
-    }
+    public String saveOrder(@ModelAttribute Order order,
+                            @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm") @RequestParam(required = false) LocalDateTime orderDate,
+                            RedirectAttributes redirectAttributes) {
+        if (orderDate != null) {
+            order.setOrderDate(orderDate);
+        }
+        OrderIngestionQueue queue = ingestionQueue.getIfAvailable();
+        if (queue != null && order.getOrderId() == null) {
+            // New orders are queued and written in batches; edits are still written directly
+            try {
+                String orderNumber = queue.accept(order);
+                redirectAttributes.addFlashAttribute("successMessage", "Order " + orderNumber + " accepted");
+            } catch (OrderQueueFullException e) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+            }
+            return "redirect:/orders";
+        }
         orderService.saveOrder(order);
         return "redirect:/orders";
     }
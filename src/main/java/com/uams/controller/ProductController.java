@@ -1,26 +1,44 @@
 package com.uams.controller;
 
 import com.uams.model.Product;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
+import com.uams.service.ImportResult;
+import com.uams.service.ImportService;
 import com.uams.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 @Controller
 @RequestMapping("/products")
 public class ProductController {
 
     private final ProductService productService;
+    private final ImportService importService;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ImportService importService) {
         this.productService = productService;
+        this.importService = importService;
     }
 
     @GetMapping
-    public String listProducts(Model model) {
-        model.addAttribute("products", productService.getAllProducts());
+    public String listProducts(@RequestParam(required = false) Long after,
+                               @RequestParam(defaultValue = "20") int size,
+                               @RequestParam(defaultValue = KeysetPageRequest.PRIMARY_KEY) String sort,
+                               @RequestParam(defaultValue = "asc") String dir,
+                               Model model) {
+        KeysetPage<Product> page = productService.getProductsPage(KeysetPageRequest.of(after, size, sort, dir));
+        model.addAttribute("products", page.getContent());
+        model.addAttribute("page", page);
         return "product/list";
     }
 
@@ -31,8 +49,27 @@ public class ProductController {
     }
 
     @PostMapping
-    public String saveProduct(@ModelAttribute Product product) {
-        productService.saveProduct(product);
+    public String saveProduct(@ModelAttribute Product product, RedirectAttributes redirectAttributes) {
+        // An edit carries the version it was based on; the merge checks it and writes only changed columns
+        try {
+            productService.saveProduct(product);
+        } catch (OptimisticLockingFailureException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "The product was changed by someone else; please edit it again.");
+        }
+        return "redirect:/products";
+    }
+
+    @PostMapping("/import")
+    public String importProducts(@RequestParam("file") MultipartFile file, RedirectAttributes redirectAttributes) {
+        try (InputStream csv = file.getInputStream()) {
+            ImportResult result = importService.importProducts(csv);
+            redirectAttributes.addFlashAttribute("successMessage", result.getSummary());
+            if (!result.getErrors().isEmpty()) {
+                redirectAttributes.addFlashAttribute("errorMessage", String.join("; ", result.getErrors()));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Import failed: " + e.getMessage());
+        }
         return "redirect:/products";
     }
 
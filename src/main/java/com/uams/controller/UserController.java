@@ -1,14 +1,27 @@
 package com.uams.controller;
 
+import com.uams.dto.UserListItem;
+import com.uams.dto.UserPatch;
 import com.uams.model.Address;
 import com.uams.model.User;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
 import com.uams.service.AddressService;
+import com.uams.service.ExportFormat;
+import com.uams.service.ExportService;
+import com.uams.service.ImportResult;
+import com.uams.service.ImportService;
 import com.uams.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -18,7 +31,8 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import javax.validation.Valid;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Optional;
 
 @Controller
@@ -28,21 +42,32 @@ public class UserController {
 
     private final UserService userService;
     private final AddressService addressService;
+    private final ImportService importService;
+    private final ExportService exportService;
 
     @Autowired
-    public UserController(UserService userService, AddressService addressService) {
+    public UserController(UserService userService, AddressService addressService,
+                          ImportService importService, ExportService exportService) {
         this.userService = userService;
         this.addressService = addressService;
+        this.importService = importService;
+        this.exportService = exportService;
     }
 
     @Operation(
         summary = "List all users",
-        description = "Returns a page displaying all users in the system"
+        description = "Returns a keyset-paginated page of users, optionally sorted by email, firstName or lastName"
     )
     @GetMapping
-    public String listUsers(Model model) {
-        List<User> users = userService.getAllUsers();
-        model.addAttribute("users", users);
+    public String listUsers(
+        @Parameter(description = "ID of the last user on the previous page") @RequestParam(required = false) Long after,
+        @RequestParam(defaultValue = "20") int size,
+        @RequestParam(defaultValue = KeysetPageRequest.PRIMARY_KEY) String sort,
+        @RequestParam(defaultValue = "asc") String dir,
+        Model model) {
+        KeysetPage<UserListItem> page = userService.getUserListPage(KeysetPageRequest.of(after, size, sort, dir));
+        model.addAttribute("users", page.getContent());
+        model.addAttribute("page", page);
         return "user/list";
     }
 
@@ -77,6 +102,39 @@ public class UserController {
         return "redirect:/users";
     }
 
+    @Operation(
+        summary = "Bulk import users",
+        description = "Streams a CSV file with a header row into the database in batched chunks and reports rows/sec"
+    )
+    @PostMapping("/import")
+    public String importUsers(@RequestParam("file") MultipartFile file, RedirectAttributes redirectAttributes) {
+        try (InputStream csv = file.getInputStream()) {
+            ImportResult result = importService.importUsers(csv);
+            redirectAttributes.addFlashAttribute("successMessage", result.getSummary());
+            if (!result.getErrors().isEmpty()) {
+                redirectAttributes.addFlashAttribute("errorMessage", String.join("; ", result.getErrors()));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Import failed: " + e.getMessage());
+        }
+        return "redirect:/users";
+    }
+
+    @Operation(
+        summary = "Export users",
+        description = "Streams every user as CSV (format=csv) or JSON lines (format=jsonl) without loading the table into memory"
+    )
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "csv") String format) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ExportResponses.attachment("users", exportFormat, out -> exportService.exportUsers(exportFormat, out));
+    }
+
     @GetMapping("/{id}/edit")
     public String showEditForm(@PathVariable Long id, Model model) {
         Optional<User> userOpt = userService.getUserById(id);
@@ -97,34 +155,23 @@ public class UserController {
         @Valid @ModelAttribute("user") User user,
         BindingResult result,
         RedirectAttributes redirectAttributes) {
-        Optional<User> existingUserOpt = userService.getUserById(id);
-        if (!existingUserOpt.isPresent()) {
-            return "redirect:/users";
-        }
-        
-        User existingUser = existingUserOpt.get();
-        
-        // Check if email is changed and already exists
-        if (!existingUser.getEmail().equals(user.getEmail()) && userService.existsByEmail(user.getEmail())) {
-            result.rejectValue("email", "error.user", "Email already exists");
-        }
-        
+        user.setUserId(id);
         if (result.hasErrors()) {
             return "user/form";
         }
         
-        // Update user fields
-        existingUser.setEmail(user.getEmail());
-        existingUser.setFirstName(user.getFirstName());
-        existingUser.setLastName(user.getLastName());
-        existingUser.setMobileNumber(user.getMobileNumber());
-        
-        // Only update password if provided
-        if (user.getPassword() != null && !user.getPassword().isEmpty()) {
-            existingUser.setPassword(user.getPassword());
+        // One versioned UPDATE; the password is only changed if a new one was entered
+        try {
+            if (!userService.updateUser(id, UserPatch.of(user))) {
+                return "redirect:/users";
+            }
+        } catch (DataIntegrityViolationException e) {
+            result.rejectValue("email", "error.user", "Email already exists");
+            return "user/form";
+        } catch (OptimisticLockingFailureException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "The user was changed by someone else; please edit it again.");
+            return "redirect:/users";
         }
-        
-        userService.saveUser(existingUser);
         redirectAttributes.addFlashAttribute("successMessage", "User updated successfully!");
         return "redirect:/users";
     }
@@ -144,18 +191,20 @@ public class UserController {
     
     @Operation(
         summary = "View user addresses",
-        description = "Displays all addresses associated with a user"
+        description = "Displays the addresses associated with a user and a searchable list of addresses that can be added"
     )
     @GetMapping("/{id}/addresses")
     public String viewUserAddresses(
         @Parameter(description = "ID of the user") @PathVariable Long id,
+        @Parameter(description = "Prefix of the city, street or pincode of addresses to offer") @RequestParam(required = false) String q,
         Model model) {
-        Optional<User> userOpt = userService.getUserById(id);
+        Optional<User> userOpt = userService.getUserWithAddresses(id);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
             model.addAttribute("user", user);
             model.addAttribute("addresses", user.getAddresses());
-            model.addAttribute("allAddresses", addressService.getAllAddresses());
+            model.addAttribute("availableAddresses", addressService.getAvailableAddressesForUser(id, q));
+            model.addAttribute("q", q);
             model.addAttribute("newAddress", new Address());
             return "user/addresses";
         }
@@ -166,19 +215,9 @@ public class UserController {
     public String addAddressToUser(@PathVariable Long userId, 
                                   @RequestParam Long addressId,
                                   RedirectAttributes redirectAttributes) {
-        Optional<User> userOpt = userService.getUserById(userId);
-        Optional<Address> addressOpt = addressService.getAddressById(addressId);
-        
-        if (userOpt.isPresent() && addressOpt.isPresent()) {
-            User user = userOpt.get();
-            Address address = addressOpt.get();
-            
-            user.addAddress(address);
-            userService.saveUser(user);
-            
+        if (userService.linkAddress(userId, addressId)) {
             redirectAttributes.addFlashAttribute("successMessage", "Address added to user successfully!");
         }
-        
         return "redirect:/users/" + userId + "/addresses";
     }
     
@@ -186,19 +225,9 @@ public class UserController {
     public String removeAddressFromUser(@PathVariable Long userId, 
                                        @PathVariable Long addressId,
                                        RedirectAttributes redirectAttributes) {
-        Optional<User> userOpt = userService.getUserById(userId);
-        Optional<Address> addressOpt = addressService.getAddressById(addressId);
-        
-        if (userOpt.isPresent() && addressOpt.isPresent()) {
-            User user = userOpt.get();
-            Address address = addressOpt.get();
-            
-            user.removeAddress(address);
-            userService.saveUser(user);
-            
+        if (userService.unlinkAddress(userId, addressId)) {
             redirectAttributes.addFlashAttribute("successMessage", "Address removed from user successfully!");
         }
-        
         return "redirect:/users/" + userId + "/addresses";
     }
 }
\ No newline at end of file
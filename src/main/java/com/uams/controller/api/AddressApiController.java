@@ -0,0 +1,78 @@
+package com.uams.controller.api;
+
+import com.uams.dto.AddressDto;
+import com.uams.dto.AddressPatch;
+import com.uams.dto.DeleteResult;
+import com.uams.dto.FieldSelection;
+import com.uams.dto.PageResponse;
+import com.uams.pagination.KeysetPageRequest;
+import com.uams.service.AddressService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/addresses")
+@Tag(name = "Addresses API", description = "JSON access to addresses")
+public class AddressApiController {
+
+    private final AddressService addressService;
+
+    @Autowired
+    public AddressApiController(AddressService addressService) {
+        this.addressService = addressService;
+    }
+
+    @Operation(summary = "List addresses", description = "Returns a keyset-paginated page of addresses, optionally sorted by city, state, pincode or street")
+    @GetMapping
+    public MappingJacksonValue listAddresses(
+            @Parameter(description = "ID of the last address on the previous page") @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = KeysetPageRequest.PRIMARY_KEY) String sort,
+            @RequestParam(defaultValue = "asc") String dir,
+            @Parameter(description = "Comma-separated properties to include, e.g. addressId,city") @RequestParam(required = false) String fields) {
+        return FieldSelection.apply(PageResponse.of(addressService.getAddressesPage(KeysetPageRequest.of(after, size, sort, dir)), AddressDto::from), fields);
+    }
+
+    @Operation(summary = "Get an address by ID")
+    @GetMapping("/{id}")
+    public ResponseEntity<MappingJacksonValue> getAddress(@PathVariable Long id,
+                                                          @RequestParam(required = false) String fields) {
+        return addressService.getAddressById(id)
+                .map(address -> ResponseEntity.ok(FieldSelection.apply(AddressDto.from(address), fields)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Delete addresses", description = "Deletes the addresses with the given ids in a few set-based statements, unlinking them from their users. In soft deletion mode they are hidden at once and purged later")
+    @DeleteMapping
+    public DeleteResult deleteAddresses(@Parameter(description = "Comma-separated address IDs") @RequestParam List<Long> ids) {
+        return new DeleteResult(addressService.deleteAddresses(ids));
+    }
+
+    @Operation(summary = "Update some of an address's properties", description = "Changes only the properties present in the body, in one update, provided the address is still at the given version. Responds 409 Conflict if it has been changed since or would duplicate another address")
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> updateAddress(@PathVariable Long id, @Valid @RequestBody AddressPatch patch) {
+        try {
+            return addressService.updateAddress(id, patch) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
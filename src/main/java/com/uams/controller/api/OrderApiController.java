@@ -0,0 +1,146 @@
+package com.uams.controller.api;
+
+import com.uams.dto.CheckoutRequest;
+import com.uams.dto.CustomerRevenue;
+import com.uams.dto.DailyRevenue;
+import com.uams.dto.DeleteResult;
+import com.uams.dto.FieldSelection;
+import com.uams.dto.OrderDto;
+import com.uams.dto.OrderRevenue;
+import com.uams.dto.PageResponse;
+import com.uams.dto.StatusRevenue;
+import com.uams.model.Order;
+import com.uams.pagination.KeysetPageRequest;
+import com.uams.service.InsufficientStockException;
+import com.uams.service.OrderSearchCriteria;
+import com.uams.service.OrderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/orders")
+@Tag(name = "Orders API", description = "JSON access to orders")
+public class OrderApiController {
+
+    private static final int REPORT_DAYS = 30;
+
+    private final OrderService orderService;
+
+    @Autowired
+    public OrderApiController(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    @Operation(summary = "List or search orders",
+            description = "Returns a keyset-paginated page of orders, filtered by any of status, email, userId, from/to and minTotal/maxTotal")
+    @GetMapping
+    public MappingJacksonValue listOrders(
+            OrderSearchCriteria criteria,
+            @Parameter(description = "ID of the last order on the previous page") @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "id, email or orderDate") @RequestParam(defaultValue = "orderDate") String sort,
+            @RequestParam(defaultValue = "asc") String dir,
+            @Parameter(description = "Comma-separated properties to include, e.g. orderId,status,totalAmount") @RequestParam(required = false) String fields) {
+        return FieldSelection.apply(PageResponse.of(orderService.searchOrders(criteria, KeysetPageRequest.of(after, size, sort, dir)), OrderDto::from), fields);
+    }
+
+    @Operation(summary = "Get an order by ID")
+    @GetMapping("/{id}")
+    public ResponseEntity<MappingJacksonValue> getOrder(@PathVariable Long id,
+                                                        @RequestParam(required = false) String fields) {
+        Order order = orderService.getOrderById(id);
+        if (order == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(FieldSelection.apply(OrderDto.from(order), fields));
+    }
+
+    @Operation(summary = "Place an order",
+            description = "Prices the lines at the products' current prices and takes them out of stock. Responds 409 Conflict, placing nothing, if a product is short, and 400 Bad Request if a product does not exist")
+    @PostMapping
+    public ResponseEntity<MappingJacksonValue> placeOrder(@Valid @RequestBody CheckoutRequest checkout) {
+        try {
+            Order placed = orderService.placeOrder(checkout.toOrder());
+            return ResponseEntity.status(HttpStatus.CREATED).body(FieldSelection.apply(OrderDto.from(placed), null));
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Delete orders",
+            description = "Deletes the orders with the given ids, or every order matching the search filters, in chunks of set-based statements. Responds 400 Bad Request without ids or filters")
+    @DeleteMapping
+    public ResponseEntity<DeleteResult> deleteOrders(
+            OrderSearchCriteria criteria,
+            @Parameter(description = "Comma-separated order IDs; the filters are ignored when given") @RequestParam(required = false) List<Long> ids) {
+        if (ids != null && !ids.isEmpty()) {
+            return ResponseEntity.ok(new DeleteResult(orderService.deleteOrders(ids)));
+        }
+        if (criteria.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(new DeleteResult(orderService.deleteOrders(criteria)));
+    }
+
+    @Operation(summary = "Order count and revenue",
+            description = "Totals of the orders placed from the start of 'from' to the end of 'to' (default: the last 30 days)")
+    @GetMapping("/revenue")
+    public OrderRevenue getRevenue(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate lastDay = lastDay(to);
+        return orderService.getRevenue(firstDay(from, lastDay), lastDay);
+    }
+
+    @Operation(summary = "Order count and revenue per day")
+    @GetMapping("/revenue/daily")
+    public List<DailyRevenue> getDailyRevenue(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate lastDay = lastDay(to);
+        return orderService.getDailyRevenue(firstDay(from, lastDay), lastDay);
+    }
+
+    @Operation(summary = "Order count and revenue per status")
+    @GetMapping("/revenue/by-status")
+    public List<StatusRevenue> getRevenueByStatus(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate lastDay = lastDay(to);
+        return orderService.getRevenueByStatus(firstDay(from, lastDay), lastDay);
+    }
+
+    @Operation(summary = "Customers with the highest revenue", description = "At most 100 customers")
+    @GetMapping("/revenue/by-customer")
+    public List<CustomerRevenue> getTopCustomers(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                 @RequestParam(defaultValue = "10") int limit) {
+        LocalDate lastDay = lastDay(to);
+        return orderService.getTopCustomers(firstDay(from, lastDay), lastDay, limit);
+    }
+
+    private static LocalDate lastDay(LocalDate to) {
+        return to == null ? LocalDate.now() : to;
+    }
+
+    private static LocalDate firstDay(LocalDate from, LocalDate lastDay) {
+        return from == null ? lastDay.minusDays(REPORT_DAYS - 1) : from;
+    }
+}
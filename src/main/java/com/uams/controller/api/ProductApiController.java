@@ -0,0 +1,82 @@
+package com.uams.controller.api;
+
+import com.uams.dto.DeleteResult;
+import com.uams.dto.FieldSelection;
+import com.uams.dto.PageResponse;
+import com.uams.dto.ProductDto;
+import com.uams.dto.ProductPatch;
+import com.uams.pagination.KeysetPageRequest;
+import com.uams.service.ProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/products")
+@Tag(name = "Products API", description = "JSON access to the product catalogue")
+public class ProductApiController {
+
+    private final ProductService productService;
+
+    @Autowired
+    public ProductApiController(ProductService productService) {
+        this.productService = productService;
+    }
+
+    @Operation(summary = "List products", description = "Returns a keyset-paginated page of products, optionally sorted by name or price")
+    @GetMapping
+    public MappingJacksonValue listProducts(
+            @Parameter(description = "ID of the last product on the previous page") @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = KeysetPageRequest.PRIMARY_KEY) String sort,
+            @RequestParam(defaultValue = "asc") String dir,
+            @Parameter(description = "Comma-separated properties to include, e.g. productId,name,price") @RequestParam(required = false) String fields) {
+        return FieldSelection.apply(PageResponse.of(productService.getProductsPage(KeysetPageRequest.of(after, size, sort, dir)), ProductDto::from), fields);
+    }
+
+    @Operation(summary = "Get a product by ID")
+    @GetMapping("/{id}")
+    public ResponseEntity<MappingJacksonValue> getProduct(@PathVariable Long id,
+                                                          @RequestParam(required = false) String fields) {
+        return productService.getProductById(id)
+                .map(product -> ResponseEntity.ok(FieldSelection.apply(ProductDto.from(product), fields)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Delete products", description = "Deletes the products with the given ids in one statement. Responds 409 Conflict if any of them is on an order")
+    @DeleteMapping
+    public ResponseEntity<DeleteResult> deleteProducts(@Parameter(description = "Comma-separated product IDs") @RequestParam List<Long> ids) {
+        try {
+            return ResponseEntity.ok(new DeleteResult(productService.deleteProducts(ids)));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @Operation(summary = "Update some of a product's properties", description = "Changes only the properties present in the body, in one update, provided the product is still at the given version. Responds 409 Conflict if it has been changed since")
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> updateProduct(@PathVariable Long id, @Valid @RequestBody ProductPatch patch) {
+        try {
+            return productService.updateProduct(id, patch) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
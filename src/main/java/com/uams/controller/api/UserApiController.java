@@ -0,0 +1,90 @@
+package com.uams.controller.api;
+
+import com.uams.dto.AddressDto;
+import com.uams.dto.DeleteResult;
+import com.uams.dto.FieldSelection;
+import com.uams.dto.PageResponse;
+import com.uams.dto.UserDto;
+import com.uams.dto.UserPatch;
+import com.uams.pagination.KeysetPageRequest;
+import com.uams.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/v1/users")
+@Tag(name = "Users API", description = "JSON access to users")
+public class UserApiController {
+
+    private final UserService userService;
+
+    @Autowired
+    public UserApiController(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Operation(summary = "List users", description = "Returns a keyset-paginated page of users, optionally sorted by email, firstName or lastName")
+    @GetMapping
+    public MappingJacksonValue listUsers(
+            @Parameter(description = "ID of the last user on the previous page") @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = KeysetPageRequest.PRIMARY_KEY) String sort,
+            @RequestParam(defaultValue = "asc") String dir,
+            @Parameter(description = "Comma-separated properties to include, e.g. userId,email") @RequestParam(required = false) String fields) {
+        return FieldSelection.apply(PageResponse.of(userService.getUsersPage(KeysetPageRequest.of(after, size, sort, dir)), UserDto::from), fields);
+    }
+
+    @Operation(summary = "Get a user by ID")
+    @GetMapping("/{id}")
+    public ResponseEntity<MappingJacksonValue> getUser(@PathVariable Long id,
+                                                       @RequestParam(required = false) String fields) {
+        return userService.getUserById(id)
+                .map(user -> ResponseEntity.ok(FieldSelection.apply(UserDto.from(user), fields)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "List the addresses linked to a user")
+    @GetMapping("/{id}/addresses")
+    public ResponseEntity<MappingJacksonValue> getUserAddresses(@PathVariable Long id,
+                                                                @RequestParam(required = false) String fields) {
+        return userService.getUserWithAddresses(id)
+                .map(user -> ResponseEntity.ok(FieldSelection.apply(
+                        user.getAddresses().stream().map(AddressDto::from).collect(Collectors.toList()), fields)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Delete users", description = "Deletes the users with the given ids in a few set-based statements; their orders are kept. In soft deletion mode they are hidden at once and purged later")
+    @DeleteMapping
+    public DeleteResult deleteUsers(@Parameter(description = "Comma-separated user IDs") @RequestParam List<Long> ids) {
+        return new DeleteResult(userService.deleteUsers(ids));
+    }
+
+    @Operation(summary = "Update some of a user's properties", description = "Changes only the properties present in the body, in one update, provided the user is still at the given version. Responds 409 Conflict if it has been changed since or the email belongs to another user")
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> updateUser(@PathVariable Long id, @Valid @RequestBody UserPatch patch) {
+        try {
+            return userService.updateUser(id, patch) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.uams.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Saturation alerting for the connection pools, bound from {@code uams.datasource.pool.*}.
+ * Pool sizing itself is configured with {@code spring.datasource.hikari.*}.
+ */
+@ConfigurationProperties(prefix = "uams.datasource.pool")
+public class PoolProperties {
+
+    /** How often the pool gauges are checked; 0 disables the check. */
+    private Duration checkInterval = Duration.ofSeconds(10);
+
+    /** Share of the maximum pool size in use at which a pool counts as saturated. */
+    private double saturationThreshold = 0.9;
+
+    public Duration getCheckInterval() {
+        return checkInterval;
+    }
+
+    public void setCheckInterval(Duration checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+
+    public double getSaturationThreshold() {
+        return saturationThreshold;
+    }
+
+    public void setSaturationThreshold(double saturationThreshold) {
+        this.saturationThreshold = saturationThreshold;
+    }
+}
@@ -0,0 +1,85 @@
+package com.uams.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the {@code hikaricp.connections.*} gauges of every instrumented pool. A pool
+ * is saturated while threads are waiting for a connection or its active connections
+ * reach {@code threshold} of the maximum size. Each transition into saturation is
+ * logged and counted in {@code uams.datasource.pool.saturation}, tagged with the pool,
+ * so it can be alerted on; the recovery is logged as well.
+ */
+public class PoolSaturationMonitor implements AutoCloseable {
+
+    static final String SATURATION_METRIC = "uams.datasource.pool.saturation";
+
+    private static final Logger log = LoggerFactory.getLogger(PoolSaturationMonitor.class);
+
+    private final MeterRegistry registry;
+    private final double threshold;
+    private final Set<String> saturated = new HashSet<>();
+    private ScheduledExecutorService scheduler;
+
+    public PoolSaturationMonitor(MeterRegistry registry, double threshold) {
+        this.registry = registry;
+        this.threshold = threshold;
+    }
+
+    public void start(Duration interval) {
+        if (interval.isZero() || interval.isNegative()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pool-saturation-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void check() {
+        for (Gauge pendingGauge : registry.find("hikaricp.connections.pending").gauges()) {
+            String pool = pendingGauge.getId().getTag("pool");
+            double pending = pendingGauge.value();
+            double active = value("hikaricp.connections.active", pool);
+            double max = value("hikaricp.connections.max", pool);
+
+            if (pending > 0 || (max > 0 && active >= max * threshold)) {
+                if (saturated.add(pool)) {
+                    Counter.builder(SATURATION_METRIC)
+                            .description("Times the connection pool became saturated")
+                            .tag("pool", pool)
+                            .register(registry)
+                            .increment();
+                    log.warn("Connection pool {} is saturated: {} of {} connections active, {} threads waiting",
+                            pool, (long) active, (long) max, (long) pending);
+                }
+            } else if (saturated.remove(pool)) {
+                log.info("Connection pool {} recovered: {} of {} connections active", pool, (long) active, (long) max);
+            }
+        }
+    }
+
+    private double value(String name, String pool) {
+        Gauge gauge = registry.find(name).tag("pool", pool).gauge();
+        return gauge == null ? 0 : gauge.value();
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.uams.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures replication lag with a heartbeat row: the current time is written to
+ * {@code replication_heartbeat} on the primary and read back from every replica.
+ * A replica is usable while its copy of the heartbeat is at most {@code maxLag} old;
+ * one that cannot be queried is treated as infinitely behind.
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    private static final Duration UNREACHABLE = Duration.ofSeconds(Long.MAX_VALUE);
+
+    private final JdbcTemplate primary;
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+    private final Duration maxLag;
+    private final Clock clock;
+    private volatile List<String> healthy = List.of();
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(DataSource primary, Map<String, DataSource> replicas, Duration maxLag, Clock clock) {
+        this.primary = new JdbcTemplate(primary);
+        replicas.forEach((name, dataSource) -> this.replicas.put(name, new JdbcTemplate(dataSource)));
+        this.maxLag = maxLag;
+        this.clock = clock;
+    }
+
+    /**
+     * Replicas that were within {@code maxLag} at the last check; empty until the first check.
+     */
+    public List<String> getHealthyReplicas() {
+        return healthy;
+    }
+
+    public void start(Duration interval) {
+        if (interval.isZero() || interval.isNegative()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void refresh() {
+        try {
+            primary.update("update replication_heartbeat set beat_at = ? where id = 1", clock.millis());
+        } catch (RuntimeException e) {
+            log.warn("Could not write the replication heartbeat to the primary", e);
+        }
+        List<String> current = new ArrayList<>(replicas.size());
+        replicas.forEach((name, replica) -> {
+            Duration lag = lag(name, replica);
+            if (lag.compareTo(maxLag) <= 0) {
+                current.add(name);
+            } else if (healthy.contains(name)) {
+                log.warn("Replica {} is {} behind the primary; reading from the primary instead", name, lag);
+            }
+        });
+        healthy = List.copyOf(current);
+    }
+
+    private Duration lag(String name, JdbcTemplate replica) {
+        try {
+            Long beatAt = replica.queryForObject("select beat_at from replication_heartbeat where id = 1", Long.class);
+            return beatAt == null ? UNREACHABLE : Duration.ofMillis(Math.max(0, clock.millis() - beatAt));
+        } catch (RuntimeException e) {
+            log.debug("Could not read the replication heartbeat from replica {}", name, e);
+            return UNREACHABLE;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+}
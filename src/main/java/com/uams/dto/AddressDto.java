@@ -0,0 +1,28 @@
+package com.uams.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.uams.model.Address;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * API view of an {@link Address}, without the users it is linked to.
+ */
+@Getter
+@AllArgsConstructor
+@JsonFilter(FieldSelection.FILTER)
+public class AddressDto {
+
+    private final Long addressId;
+    private final String buildingName;
+    private final String street;
+    private final String city;
+    private final String state;
+    private final String pincode;
+    private final Long version;
+
+    public static AddressDto from(Address address) {
+        return new AddressDto(address.getAddressId(), address.getBuildingName(), address.getStreet(),
+                address.getCity(), address.getState(), address.getPincode(), address.getVersion());
+    }
+}
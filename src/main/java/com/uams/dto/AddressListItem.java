@@ -0,0 +1,19 @@
+package com.uams.dto;
+
+/**
+ * The columns of the address list page, read without loading {@link com.uams.model.Address} entities.
+ */
+public interface AddressListItem {
+
+    Long getAddressId();
+
+    String getBuildingName();
+
+    String getStreet();
+
+    String getCity();
+
+    String getState();
+
+    String getPincode();
+}
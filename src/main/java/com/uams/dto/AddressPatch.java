@@ -0,0 +1,73 @@
+package com.uams.dto;
+
+import com.uams.model.Address;
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Partial update of an {@link Address}: the properties to change, and the {@code version}
+ * of the address they were based on. Null properties are left as they are.
+ */
+@Getter
+@Setter
+public class AddressPatch {
+
+    @NotNull(message = "Version is required")
+    private Long version;
+
+    private String buildingName;
+
+    @Size(min = 1, message = "Street must not be empty")
+    private String street;
+
+    @Size(min = 1, message = "City must not be empty")
+    private String city;
+
+    @Size(min = 1, message = "State must not be empty")
+    private String state;
+
+    @Size(min = 1, message = "Pincode must not be empty")
+    private String pincode;
+
+    /**
+     * The edit form's fields as a patch.
+     */
+    public static AddressPatch of(Address address) {
+        AddressPatch patch = new AddressPatch();
+        patch.setVersion(address.getVersion());
+        patch.setBuildingName(address.getBuildingName());
+        patch.setStreet(address.getStreet());
+        patch.setCity(address.getCity());
+        patch.setState(address.getState());
+        patch.setPincode(address.getPincode());
+        return patch;
+    }
+
+    /**
+     * The non-null properties, keyed by {@link Address} property name.
+     */
+    public Map<String, Object> changes() {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (buildingName != null) {
+            changes.put("buildingName", buildingName);
+        }
+        if (street != null) {
+            changes.put("street", street);
+        }
+        if (city != null) {
+            changes.put("city", city);
+        }
+        if (state != null) {
+            changes.put("state", state);
+        }
+        if (pincode != null) {
+            changes.put("pincode", pincode);
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,71 @@
+package com.uams.dto;
+
+import com.uams.model.Address;
+import com.uams.model.Order;
+import com.uams.model.Product;
+import com.uams.model.User;
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A new order and the products on it; the customer, address and products are referenced
+ * by id, and the lines are priced when the order is placed.
+ */
+@Getter
+@Setter
+public class CheckoutRequest {
+
+    private Long userId;
+    private Long addressId;
+
+    @NotBlank(message = "Email is required")
+    @Email(message = "Please provide a valid email address")
+    private String email;
+
+    private String orderNumber;
+
+    @NotEmpty(message = "An order needs at least one line")
+    @Valid
+    private List<Line> lines = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Line {
+
+        @NotNull(message = "Product is required")
+        private Long productId;
+
+        @Min(value = 1, message = "Quantity must be at least 1")
+        private int quantity;
+    }
+
+    public Order toOrder() {
+        Order order = new Order(null, null, email, orderNumber, LocalDateTime.now(), "NEW", null);
+        if (userId != null) {
+            User user = new User();
+            user.setUserId(userId);
+            order.setUser(user);
+        }
+        if (addressId != null) {
+            Address address = new Address();
+            address.setAddressId(addressId);
+            order.setAddress(address);
+        }
+        for (Line line : lines) {
+            Product product = new Product();
+            product.setProductId(line.getProductId());
+            order.addLine(product, line.getQuantity());
+        }
+        return order;
+    }
+}
@@ -0,0 +1,24 @@
+package com.uams.dto;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Number and total value of one customer's orders, computed by the database.
+ */
+@Getter
+public class CustomerRevenue {
+
+    private final Long userId;
+    private final String email;
+    private final long orders;
+    private final BigDecimal revenue;
+
+    public CustomerRevenue(Long userId, String email, Long orders, BigDecimal revenue) {
+        this.userId = userId;
+        this.email = email;
+        this.orders = orders;
+        this.revenue = revenue == null ? BigDecimal.ZERO : revenue;
+    }
+}
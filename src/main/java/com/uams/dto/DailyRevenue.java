@@ -0,0 +1,23 @@
+package com.uams.dto;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Number and total value of the orders placed on one day, computed by the database.
+ */
+@Getter
+public class DailyRevenue {
+
+    private final LocalDate day;
+    private final long orders;
+    private final BigDecimal revenue;
+
+    public DailyRevenue(LocalDate day, Long orders, BigDecimal revenue) {
+        this.day = day;
+        this.orders = orders;
+        this.revenue = revenue == null ? BigDecimal.ZERO : revenue;
+    }
+}
@@ -0,0 +1,16 @@
+package com.uams.dto;
+
+import lombok.Getter;
+
+/**
+ * Number of rows a bulk delete removed; ids that did not exist are not counted.
+ */
+@Getter
+public class DeleteResult {
+
+    private final int deleted;
+
+    public DeleteResult(int deleted) {
+        this.deleted = deleted;
+    }
+}
@@ -0,0 +1,40 @@
+package com.uams.dto;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldsets for the API DTOs: {@code ?fields=userId,email} serialises only those
+ * properties of every DTO in the response. Unknown names are ignored, and without a
+ * {@code fields} parameter every property is written.
+ */
+public final class FieldSelection {
+
+    public static final String FILTER = "fieldSelection";
+
+    private FieldSelection() {
+    }
+
+    public static MappingJacksonValue apply(Object body, String fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider().addFilter(FILTER, filter(fields)));
+        return value;
+    }
+
+    private static SimpleBeanPropertyFilter filter(String fields) {
+        if (!StringUtils.hasText(fields)) {
+            return SimpleBeanPropertyFilter.serializeAll();
+        }
+        Set<String> names = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toSet());
+        return SimpleBeanPropertyFilter.filterOutAllExcept(names);
+    }
+}
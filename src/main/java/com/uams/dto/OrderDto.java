@@ -0,0 +1,36 @@
+package com.uams.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.uams.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * API view of an {@link Order}; the customer and delivery address are referenced by id.
+ */
+@Getter
+@AllArgsConstructor
+@JsonFilter(FieldSelection.FILTER)
+public class OrderDto {
+
+    private final Long orderId;
+    private final Long userId;
+    private final Long addressId;
+    private final String email;
+    private final String orderNumber;
+    private final LocalDateTime orderDate;
+    private final String status;
+    private final BigDecimal totalAmount;
+
+    public static OrderDto from(Order order) {
+        // Reading the id of a lazy proxy does not initialise it
+        return new OrderDto(order.getOrderId(),
+                order.getUser() == null ? null : order.getUser().getUserId(),
+                order.getAddress() == null ? null : order.getAddress().getAddressId(),
+                order.getEmail(), order.getOrderNumber(), order.getOrderDate(), order.getStatus(),
+                order.getTotalAmount());
+    }
+}
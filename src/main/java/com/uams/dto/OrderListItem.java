@@ -0,0 +1,23 @@
+package com.uams.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The columns of the order list and search pages, read from the orders table alone,
+ * without loading {@link com.uams.model.Order} entities or joining their customer and address.
+ */
+public interface OrderListItem {
+
+    Long getOrderId();
+
+    String getOrderNumber();
+
+    String getEmail();
+
+    LocalDateTime getOrderDate();
+
+    String getStatus();
+
+    BigDecimal getTotalAmount();
+}
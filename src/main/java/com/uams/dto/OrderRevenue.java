@@ -0,0 +1,21 @@
+package com.uams.dto;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Number and total value of the orders placed in a period, computed by the database.
+ */
+@Getter
+public class OrderRevenue {
+
+    private final long orders;
+    private final BigDecimal revenue;
+
+    public OrderRevenue(Long orders, BigDecimal revenue) {
+        this.orders = orders;
+        // sum() is null over no rows, or only orders without a total
+        this.revenue = revenue == null ? BigDecimal.ZERO : revenue;
+    }
+}
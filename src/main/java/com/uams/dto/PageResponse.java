@@ -0,0 +1,29 @@
+package com.uams.dto;
+
+import com.uams.pagination.KeysetPage;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One keyset page of API items. {@code nextCursor} is passed back as {@code after}
+ * to fetch the following page and is {@code null} on the last page.
+ */
+@Getter
+@AllArgsConstructor
+public class PageResponse<T> {
+
+    private final List<T> items;
+    private final Long nextCursor;
+    private final int size;
+    private final String sort;
+    private final String direction;
+
+    public static <E, T> PageResponse<T> of(KeysetPage<E> page, Function<E, T> mapper) {
+        List<T> items = page.getContent().stream().map(mapper).collect(Collectors.toList());
+        return new PageResponse<>(items, page.getNextCursor(), page.getSize(), page.getSortKey(), page.getDirection());
+    }
+}
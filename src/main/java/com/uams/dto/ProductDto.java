@@ -0,0 +1,32 @@
+package com.uams.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.uams.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * API view of a {@link Product}.
+ */
+@Getter
+@AllArgsConstructor
+@JsonFilter(FieldSelection.FILTER)
+public class ProductDto {
+
+    private final Long productId;
+    private final String name;
+    private final String description;
+    private final BigDecimal price;
+    private final Integer stockQuantity;
+    private final String category;
+    private final String imageUrl;
+    private final Long version;
+
+    public static ProductDto from(Product product) {
+        return new ProductDto(product.getProductId(), product.getName(), product.getDescription(),
+                product.getPrice(), product.getStockQuantity(), product.getCategory(), product.getImageUrl(),
+                product.getVersion());
+    }
+}
@@ -0,0 +1,61 @@
+package com.uams.dto;
+
+import com.uams.model.Product;
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.math.BigDecimal;
+
+/**
+ * Partial update of a {@link Product}: the properties to change, and the {@code version}
+ * of the product they were based on. Null properties are left as they are.
+ */
+@Getter
+@Setter
+public class ProductPatch {
+
+    @NotNull(message = "Version is required")
+    private Long version;
+
+    @Size(min = 1, message = "Name must not be empty")
+    private String name;
+
+    private String description;
+
+    @DecimalMin(value = "0.00", message = "Price must not be negative")
+    private BigDecimal price;
+
+    @Min(value = 0, message = "Stock quantity must not be negative")
+    private Integer stockQuantity;
+
+    private String category;
+    private String imageUrl;
+
+    /**
+     * Copies the non-null properties onto {@code product}.
+     */
+    public void applyTo(Product product) {
+        if (name != null) {
+            product.setName(name);
+        }
+        if (description != null) {
+            product.setDescription(description);
+        }
+        if (price != null) {
+            product.setPrice(price);
+        }
+        if (stockQuantity != null) {
+            product.setStockQuantity(stockQuantity);
+        }
+        if (category != null) {
+            product.setCategory(category);
+        }
+        if (imageUrl != null) {
+            product.setImageUrl(imageUrl);
+        }
+    }
+}
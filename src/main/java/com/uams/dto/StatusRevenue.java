@@ -0,0 +1,22 @@
+package com.uams.dto;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Number and total value of the orders in one status, computed by the database.
+ */
+@Getter
+public class StatusRevenue {
+
+    private final String status;
+    private final long orders;
+    private final BigDecimal revenue;
+
+    public StatusRevenue(String status, Long orders, BigDecimal revenue) {
+        this.status = status;
+        this.orders = orders;
+        this.revenue = revenue == null ? BigDecimal.ZERO : revenue;
+    }
+}
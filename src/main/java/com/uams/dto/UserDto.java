@@ -0,0 +1,28 @@
+package com.uams.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.uams.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * API view of a {@link User}. Deliberately flat: addresses are a separate resource
+ * and the password is never exposed.
+ */
+@Getter
+@AllArgsConstructor
+@JsonFilter(FieldSelection.FILTER)
+public class UserDto {
+
+    private final Long userId;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final String mobileNumber;
+    private final Long version;
+
+    public static UserDto from(User user) {
+        return new UserDto(user.getUserId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                user.getMobileNumber(), user.getVersion());
+    }
+}
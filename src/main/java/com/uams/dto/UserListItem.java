@@ -0,0 +1,18 @@
+package com.uams.dto;
+
+/**
+ * The columns of the user list page, read without loading {@link com.uams.model.User}
+ * entities (and their passwords).
+ */
+public interface UserListItem {
+
+    Long getUserId();
+
+    String getEmail();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getMobileNumber();
+}
@@ -0,0 +1,77 @@
+package com.uams.dto;
+
+import com.uams.model.User;
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.validation.constraints.Email;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Partial update of a {@link User}: the properties to change, and the {@code version}
+ * of the user they were based on. Null properties are left as they are.
+ */
+@Getter
+@Setter
+public class UserPatch {
+
+    @NotNull(message = "Version is required")
+    private Long version;
+
+    @Email(message = "Please provide a valid email address")
+    @Size(min = 1, message = "Email must not be empty")
+    private String email;
+
+    @Size(min = 1, message = "First name must not be empty")
+    private String firstName;
+
+    @Size(min = 1, message = "Last name must not be empty")
+    private String lastName;
+
+    private String mobileNumber;
+
+    @Size(min = 6, message = "Password must be at least 6 characters long")
+    private String password;
+
+    /**
+     * The edit form's fields as a patch; a blank password keeps the current one.
+     */
+    public static UserPatch of(User user) {
+        UserPatch patch = new UserPatch();
+        patch.setVersion(user.getVersion());
+        patch.setEmail(user.getEmail());
+        patch.setFirstName(user.getFirstName());
+        patch.setLastName(user.getLastName());
+        patch.setMobileNumber(user.getMobileNumber());
+        if (user.getPassword() != null && !user.getPassword().isEmpty()) {
+            patch.setPassword(user.getPassword());
+        }
+        return patch;
+    }
+
+    /**
+     * The non-null properties, keyed by {@link User} property name.
+     */
+    public Map<String, Object> changes() {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (email != null) {
+            changes.put("email", email);
+        }
+        if (firstName != null) {
+            changes.put("firstName", firstName);
+        }
+        if (lastName != null) {
+            changes.put("lastName", lastName);
+        }
+        if (mobileNumber != null) {
+            changes.put("mobileNumber", mobileNumber);
+        }
+        if (password != null) {
+            changes.put("password", password);
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,145 @@
+package com.uams.ingest;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.uams.model.Address;
+import com.uams.model.Order;
+import com.uams.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An accepted order as it is kept in the queue and the write-ahead log: the order's
+ * columns, with the customer and address by id, the log sequence number, and the
+ * ingestion key that identifies the order once it is written.
+ */
+class IngestedOrder {
+
+    private long sequence;
+    // System.nanoTime() is only meaningful within one run, so replayed orders are stamped again
+    @JsonIgnore
+    private long acceptedAt;
+    private String ingestionKey;
+    private String orderNumber;
+    private String email;
+    private LocalDateTime orderDate;
+    private String status;
+    private BigDecimal totalAmount;
+    private Long userId;
+    private Long addressId;
+
+    IngestedOrder() {
+    }
+
+    static IngestedOrder of(Order order) {
+        IngestedOrder ingested = new IngestedOrder();
+        ingested.orderNumber = order.getOrderNumber();
+        ingested.email = order.getEmail();
+        ingested.orderDate = order.getOrderDate();
+        ingested.status = order.getStatus();
+        ingested.totalAmount = order.getTotalAmount();
+        ingested.userId = order.getUser() == null ? null : order.getUser().getUserId();
+        ingested.addressId = order.getAddress() == null ? null : order.getAddress().getAddressId();
+        return ingested;
+    }
+
+    /**
+     * A new order entity; the customer and address carry only their ids, for
+     * {@link com.uams.service.OrderService#saveAllOrders} to resolve.
+     */
+    Order toOrder() {
+        User user = null;
+        if (userId != null) {
+            user = new User();
+            user.setUserId(userId);
+        }
+        Address address = null;
+        if (addressId != null) {
+            address = new Address();
+            address.setAddressId(addressId);
+        }
+        Order order = new Order(user, address, email, orderNumber, orderDate, status, totalAmount);
+        order.setIngestionKey(ingestionKey);
+        return order;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public long getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    public void setAcceptedAt(long acceptedAt) {
+        this.acceptedAt = acceptedAt;
+    }
+
+    public String getIngestionKey() {
+        return ingestionKey;
+    }
+
+    public void setIngestionKey(String ingestionKey) {
+        this.ingestionKey = ingestionKey;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public void setOrderNumber(String orderNumber) {
+        this.orderNumber = orderNumber;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public void setOrderDate(LocalDateTime orderDate) {
+        this.orderDate = orderDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getAddressId() {
+        return addressId;
+    }
+
+    public void setAddressId(Long addressId) {
+        this.addressId = addressId;
+    }
+}
@@ -0,0 +1,91 @@
+package com.uams.ingest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Queued order ingestion, bound from {@code uams.order-ingestion.*}. When disabled,
+ * new orders are written synchronously by {@code OrderService.saveOrder}.
+ */
+@ConfigurationProperties(prefix = "uams.order-ingestion")
+public class OrderIngestionProperties {
+
+    private boolean enabled;
+
+    /** Orders accepted but not yet committed, including the batch being written. */
+    private int queueCapacity = 10_000;
+
+    /** How long a request waits for room in a full queue before it is rejected. */
+    private Duration acceptTimeout = Duration.ofMillis(500);
+
+    /** Orders per transaction; a multiple of hibernate.jdbc.batch_size. */
+    private int batchSize = 500;
+
+    /** How long the writer waits for a batch to fill once it has at least one order. */
+    private Duration maxBatchDelay = Duration.ofMillis(100);
+
+    /** Directory of the write-ahead log that survives a crash before orders are committed. */
+    private Path walDirectory = Paths.get("data", "order-ingestion");
+
+    /** Forces each accepted order to disk before acknowledging it. */
+    private boolean fsync = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Duration getAcceptTimeout() {
+        return acceptTimeout;
+    }
+
+    public void setAcceptTimeout(Duration acceptTimeout) {
+        this.acceptTimeout = acceptTimeout;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getMaxBatchDelay() {
+        return maxBatchDelay;
+    }
+
+    public void setMaxBatchDelay(Duration maxBatchDelay) {
+        this.maxBatchDelay = maxBatchDelay;
+    }
+
+    public Path getWalDirectory() {
+        return walDirectory;
+    }
+
+    public void setWalDirectory(Path walDirectory) {
+        this.walDirectory = walDirectory;
+    }
+
+    public boolean isFsync() {
+        return fsync;
+    }
+
+    public void setFsync(boolean fsync) {
+        this.fsync = fsync;
+    }
+}
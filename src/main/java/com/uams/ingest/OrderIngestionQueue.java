@@ -0,0 +1,310 @@
+package com.uams.ingest;
+
+import com.uams.model.Order;
+import com.uams.service.OrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Accepts new orders into a bounded in-memory queue and writes them to the database in
+ * batches on a dedicated thread, so a burst of orders costs one commit per batch rather
+ * than one per order.
+ * <ul>
+ *     <li>{@link #accept(Order)} logs the order to the {@link OrderWriteAheadLog} before
+ *     acknowledging it with its order number, generated if the order has none.</li>
+ *     <li>The queue holds {@code queue-capacity} orders until they are committed; when it
+ *     is full, {@code accept} waits up to {@code accept-timeout} and then throws
+ *     {@link OrderQueueFullException}.</li>
+ *     <li>A batch that fails because the database is unavailable is retried until it
+ *     succeeds or the application stops. A batch that fails for any other reason is
+ *     retried one order at a time, and orders that still fail are parked in the
+ *     write-ahead log's dead-letter file before the batch is checkpointed.</li>
+ * </ul>
+ * Metrics: {@code uams.order.ingestion.queue.depth}, {@code .flush} (batch transaction
+ * time), {@code .lag} (accept to commit), {@code .batch.size} and {@code .orders} by result.
+ */
+public class OrderIngestionQueue implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIngestionQueue.class);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(5);
+    private static final String METRIC_PREFIX = "uams.order.ingestion";
+
+    private final OrderService orderService;
+    private final OrderWriteAheadLog writeAheadLog;
+    private final OrderIngestionProperties properties;
+    private final MeterRegistry registry;
+    private final BlockingQueue<IngestedOrder> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger orderNumberSequence = new AtomicInteger();
+    private final Object appendLock = new Object();
+    private final Timer flushTimer;
+    private final Timer lagTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter failed;
+    private Semaphore capacity;
+    private long lastReplayedSequence;
+    private volatile boolean running;
+    private Thread writer;
+
+    public OrderIngestionQueue(OrderService orderService, OrderWriteAheadLog writeAheadLog,
+                               OrderIngestionProperties properties, MeterRegistry registry) {
+        this.orderService = orderService;
+        this.writeAheadLog = writeAheadLog;
+        this.properties = properties;
+        this.registry = registry;
+        this.flushTimer = Timer.builder(METRIC_PREFIX + ".flush")
+                .description("Time to write one batch of queued orders")
+                .register(registry);
+        this.lagTimer = Timer.builder(METRIC_PREFIX + ".lag")
+                .description("Time from accepting an order to committing it")
+                .register(registry);
+        this.batchSizes = DistributionSummary.builder(METRIC_PREFIX + ".batch.size")
+                .description("Orders per batch")
+                .register(registry);
+        this.accepted = ordersCounter("accepted");
+        this.rejected = ordersCounter("rejected");
+        this.failed = ordersCounter("failed");
+    }
+
+    /**
+     * Replays the orders left in the write-ahead log, then starts the writer thread.
+     */
+    public void start() throws IOException {
+        List<IngestedOrder> recovered = writeAheadLog.recover();
+        if (!recovered.isEmpty()) {
+            log.info("Replaying {} orders from the write-ahead log", recovered.size());
+            lastReplayedSequence = recovered.get(recovered.size() - 1).getSequence();
+            // their lag is measured from the restart
+            long now = System.nanoTime();
+            recovered.forEach(order -> order.setAcceptedAt(now));
+        }
+        queue.addAll(recovered);
+        // negative when more orders were recovered than fit; accept() waits until they are written
+        capacity = new Semaphore(properties.getQueueCapacity() - recovered.size());
+        Gauge.builder(METRIC_PREFIX + ".queue.depth", capacity,
+                        permits -> properties.getQueueCapacity() - permits.availablePermits())
+                .description("Orders accepted but not yet committed")
+                .register(registry);
+
+        running = true;
+        writer = new Thread(this::run, "order-ingestion");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a new order and returns its order number once the order is in the write-ahead log.
+     *
+     * @throws OrderQueueFullException if no room became free within the accept timeout
+     */
+    public String accept(Order order) {
+        if (!running) {
+            throw new IllegalStateException("Order ingestion is not running");
+        }
+        try {
+            if (!capacity.tryAcquire(properties.getAcceptTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new OrderQueueFullException("The order queue is full; please retry shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderQueueFullException("Interrupted while waiting for room in the order queue");
+        }
+
+        if (!StringUtils.hasText(order.getOrderNumber())) {
+            order.setOrderNumber(nextOrderNumber());
+        }
+        IngestedOrder ingested = IngestedOrder.of(order);
+        ingested.setIngestionKey(UUID.randomUUID().toString());
+        ingested.setAcceptedAt(System.nanoTime());
+        try {
+            // the log and the queue must see orders in the same sequence
+            synchronized (appendLock) {
+                writeAheadLog.append(ingested);
+                queue.add(ingested);
+            }
+        } catch (IOException e) {
+            capacity.release();
+            throw new UncheckedIOException("Could not write the order to the write-ahead log", e);
+        }
+        accepted.increment();
+        return ingested.getOrderNumber();
+    }
+
+    private String nextOrderNumber() {
+        return "ORD-" + Long.toString(System.currentTimeMillis(), 36).toUpperCase()
+                + "-" + String.format("%04d", Math.floorMod(orderNumberSequence.incrementAndGet(), 10_000));
+    }
+
+    private void run() {
+        List<IngestedOrder> batch = new ArrayList<>(properties.getBatchSize());
+        try {
+            while (running || !queue.isEmpty()) {
+                IngestedOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                if (!flush(batch)) {
+                    // stopped while the database was unavailable; the rest stays in the log
+                    return;
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void fill(List<IngestedOrder> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + properties.getMaxBatchDelay().toNanos();
+        while (batch.size() < properties.getBatchSize()) {
+            queue.drainTo(batch, properties.getBatchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.getBatchSize() || remaining <= 0) {
+                return;
+            }
+            IngestedOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Writes the batch and checkpoints it; returns false if it was given up on shutdown.
+     */
+    boolean flush(List<IngestedOrder> batch) throws InterruptedException {
+        long start = System.nanoTime();
+        Duration retryDelay = Duration.ofMillis(100);
+        boolean retry = false;
+        boolean oneByOne = false;
+        while (true) {
+            try {
+                if (oneByOne) {
+                    writeOneByOne(batch);
+                } else {
+                    write(batch, retry);
+                }
+                break;
+            } catch (RuntimeException e) {
+                retry = true;
+                // a dead-letter file that cannot be written is retried like an unavailable database
+                if (!isDatabaseUnavailable(e) && !(e instanceof UncheckedIOException)) {
+                    oneByOne = true;
+                    continue;
+                }
+                if (!running) {
+                    log.warn("Stopping with {} orders not written; they will be replayed from the write-ahead log",
+                            batch.size() + queue.size());
+                    return false;
+                }
+                log.warn("Could not write {} queued orders, retrying in {}", batch.size(), retryDelay, e);
+                Thread.sleep(retryDelay.toMillis());
+                retryDelay = retryDelay.multipliedBy(2);
+                if (retryDelay.compareTo(MAX_RETRY_DELAY) > 0) {
+                    retryDelay = MAX_RETRY_DELAY;
+                }
+            }
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizes.record(batch.size());
+
+        try {
+            writeAheadLog.commit(batch.get(batch.size() - 1).getSequence());
+        } catch (IOException e) {
+            // harmless: the orders are committed, and a replay skips their ingestion keys
+            log.warn("Could not checkpoint the order write-ahead log", e);
+        }
+        long now = System.nanoTime();
+        batch.forEach(order -> lagTimer.record(now - order.getAcceptedAt(), TimeUnit.NANOSECONDS));
+        capacity.release(batch.size());
+        return true;
+    }
+
+    private void write(List<IngestedOrder> batch, boolean retry) {
+        List<IngestedOrder> toWrite = batch;
+        // a retry or a replay may find orders that were committed before the failure or crash
+        if (retry || batch.get(0).getSequence() <= lastReplayedSequence) {
+            Set<String> existing = orderService.findExistingIngestionKeys(
+                    batch.stream().map(IngestedOrder::getIngestionKey).collect(Collectors.toList()));
+            toWrite = batch.stream()
+                    .filter(order -> !existing.contains(order.getIngestionKey()))
+                    .collect(Collectors.toList());
+        }
+        if (!toWrite.isEmpty()) {
+            orderService.saveAllOrders(toWrite.stream().map(IngestedOrder::toOrder).collect(Collectors.toList()));
+        }
+    }
+
+    private void writeOneByOne(List<IngestedOrder> batch) {
+        for (IngestedOrder order : batch) {
+            try {
+                write(List.of(order), true);
+            } catch (RuntimeException e) {
+                if (isDatabaseUnavailable(e)) {
+                    throw e;
+                }
+                try {
+                    writeAheadLog.park(order);
+                } catch (IOException parkFailure) {
+                    throw new UncheckedIOException("Could not park an order that cannot be written", parkFailure);
+                }
+                failed.increment();
+                log.error("Parked queued order {} (ingestion key {}) that cannot be written in {}",
+                        order.getOrderNumber(), order.getIngestionKey(), writeAheadLog.deadLetterFile(), e);
+            }
+        }
+    }
+
+    private static boolean isDatabaseUnavailable(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private Counter ordersCounter(String result) {
+        return Counter.builder(METRIC_PREFIX + ".orders")
+                .description("Orders handled by the ingestion queue")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Stops accepting orders and waits for the writer to drain the queue.
+     */
+    @Override
+    public void close() throws Exception {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        writeAheadLog.close();
+    }
+}
@@ -0,0 +1,12 @@
+package com.uams.ingest;
+
+/**
+ * Thrown when an order cannot be accepted because the ingestion queue stayed full for
+ * the whole accept timeout; the client should retry later.
+ */
+public class OrderQueueFullException extends RuntimeException {
+
+    public OrderQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,170 @@
+package com.uams.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An append-only file of accepted orders, one JSON line each, numbered by a sequence.
+ * Once a batch is committed its last sequence is appended as a checkpoint
+ * ({@code {"committed":n}}); when every accepted order is committed the file is
+ * truncated, so it only grows while the database falls behind.
+ * <p>
+ * On start, {@link #recover()} returns the orders after the last checkpoint. A crash
+ * between a commit and its checkpoint replays orders that are already in the database,
+ * so the writer skips replayed orders whose ingestion key is already in the database.
+ * <p>
+ * Orders that the database refuses are parked, in the same format, in a dead-letter
+ * file next to the log ({@link #park(IngestedOrder)}), so an acknowledged order is never
+ * checkpointed away without a copy.
+ */
+public class OrderWriteAheadLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderWriteAheadLog.class);
+    private static final String FILE_NAME = "orders.wal";
+    private static final String DEAD_LETTER_FILE_NAME = "orders.dead";
+
+    private final Path file;
+    private final Path deadLetterFile;
+    private final ObjectMapper objectMapper;
+    private final boolean fsync;
+    private FileChannel channel;
+    private long lastSequence;
+
+    public OrderWriteAheadLog(Path directory, ObjectMapper objectMapper, boolean fsync) {
+        this.file = directory.resolve(FILE_NAME);
+        this.deadLetterFile = directory.resolve(DEAD_LETTER_FILE_NAME);
+        this.objectMapper = objectMapper;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Opens the log and returns the orders that were accepted but never checkpointed, in order.
+     */
+    synchronized List<IngestedOrder> recover() throws IOException {
+        Files.createDirectories(file.getParent());
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // a crash in the middle of a write leaves a torn last line; new lines must not follow it
+        long end = endOfLastLine();
+        if (end < channel.size()) {
+            log.warn("Truncating a torn line at the end of {}", file);
+            channel.truncate(end);
+            if (fsync) {
+                channel.force(false);
+            }
+        }
+        List<IngestedOrder> pending = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonNode node = objectMapper.readTree(line);
+                if (node.has("committed")) {
+                    long committed = node.get("committed").asLong();
+                    pending.removeIf(order -> order.getSequence() <= committed);
+                } else {
+                    IngestedOrder order = objectMapper.treeToValue(node, IngestedOrder.class);
+                    pending.add(order);
+                    lastSequence = Math.max(lastSequence, order.getSequence());
+                }
+            }
+        }
+        channel.position(end);
+        return pending;
+    }
+
+    private long endOfLastLine() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = channel.size();
+        while (position > 0) {
+            long start = Math.max(0, position - buffer.capacity());
+            buffer.clear().limit((int) (position - start));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of " + file);
+                }
+            }
+            for (int i = buffer.limit() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return start + i + 1;
+                }
+            }
+            position = start;
+        }
+        return 0;
+    }
+
+    /**
+     * Assigns the order its sequence number and writes it to the log (and, with fsync, to disk).
+     */
+    synchronized void append(IngestedOrder order) throws IOException {
+        order.setSequence(lastSequence + 1);
+        write(objectMapper.writeValueAsBytes(order));
+        if (fsync) {
+            channel.force(false);
+        }
+        lastSequence = order.getSequence();
+    }
+
+    /**
+     * Appends an order that cannot be written to the dead-letter file (and, with fsync,
+     * forces it to disk), before its checkpoint drops it from the log.
+     */
+    synchronized void park(IngestedOrder order) throws IOException {
+        try (FileChannel deadLetters = FileChannel.open(deadLetterFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            write(deadLetters, objectMapper.writeValueAsBytes(order));
+            if (fsync) {
+                deadLetters.force(false);
+            }
+        }
+    }
+
+    Path deadLetterFile() {
+        return deadLetterFile;
+    }
+
+    /**
+     * Records that every order up to {@code sequence} is in the database.
+     */
+    synchronized void commit(long sequence) throws IOException {
+        if (sequence >= lastSequence) {
+            channel.truncate(0);
+            channel.position(0);
+        } else {
+            write(objectMapper.writeValueAsBytes(Map.of("committed", sequence)));
+        }
+    }
+
+    private void write(byte[] json) throws IOException {
+        write(channel, json);
+    }
+
+    private static void write(FileChannel target, byte[] json) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n');
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
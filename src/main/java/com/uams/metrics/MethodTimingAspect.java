@@ -0,0 +1,56 @@
+package com.uams.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Times every public method of the controllers and services as {@code uams.method},
+ * tagged with the layer, class, method and the exception thrown (if any). Percentiles
+ * and SLO buckets come from {@code management.metrics.distribution.*.uams.method}.
+ * Calls from one method to another on the same bean bypass the proxy and are not timed
+ * separately.
+ */
+@Aspect
+public class MethodTimingAspect {
+
+    static final String METRIC = "uams.method";
+
+    private final MeterRegistry registry;
+
+    public MethodTimingAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.uams.controller..*(..)) && "
+            + "(@within(org.springframework.stereotype.Controller) || @within(org.springframework.web.bind.annotation.RestController))")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("controller", joinPoint);
+    }
+
+    @Around("execution(public * com.uams.service..*(..)) && @within(org.springframework.stereotype.Service)")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("service", joinPoint);
+    }
+
+    private Object time(String layer, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC)
+                    .description("Controller and service method execution time")
+                    .tag("layer", layer)
+                    .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(registry));
+        }
+    }
+}
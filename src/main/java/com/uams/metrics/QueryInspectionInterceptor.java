@@ -0,0 +1,103 @@
+package com.uams.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+/**
+ * Inspects the queries of each request, tagged with the HTTP method and the matched URI
+ * pattern (the same {@code uri} tag as {@code http.server.requests}):
+ * <ul>
+ *     <li>{@code uams.request.statements} and {@code uams.request.entity.loads} record the
+ *     Hibernate statements and entity loads per request;</li>
+ *     <li>a statement prepared {@code repeat-threshold} times or more is logged as a
+ *     possible N+1 with the controller method, and counted in {@code uams.request.n.plus.one};</li>
+ *     <li>with {@code log-requests}, every request's counts are logged.</li>
+ * </ul>
+ * Statements run on the async threads of streaming exports are not attributed to the request.
+ */
+public class QueryInspectionInterceptor implements AsyncHandlerInterceptor {
+
+    static final String STATEMENTS_METRIC = "uams.request.statements";
+    static final String ENTITY_LOADS_METRIC = "uams.request.entity.loads";
+    static final String N_PLUS_ONE_METRIC = "uams.request.n.plus.one";
+
+    private static final Logger log = LoggerFactory.getLogger(QueryInspectionInterceptor.class);
+
+    private final QueryStatsRecorder recorder;
+    private final MeterRegistry registry;
+    private final QueryInspectionProperties properties;
+
+    public QueryInspectionInterceptor(QueryStatsRecorder recorder, MeterRegistry registry,
+                                      QueryInspectionProperties properties) {
+        this.recorder = recorder;
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        recorder.begin();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        recorder.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryStats stats = recorder.end();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+
+        DistributionSummary.builder(STATEMENTS_METRIC)
+                .description("Hibernate statements per request")
+                .baseUnit("statements")
+                .tags(tags)
+                .register(registry)
+                .record(stats.getStatements());
+        DistributionSummary.builder(ENTITY_LOADS_METRIC)
+                .description("Entities loaded from JDBC results per request")
+                .baseUnit("entities")
+                .tags(tags)
+                .register(registry)
+                .record(stats.getEntityLoads());
+
+        if (properties.isLogRequests()) {
+            log.info("{} {} handler={} statements={} entityLoads={}", request.getMethod(), request.getRequestURI(),
+                    describe(handler), stats.getStatements(), stats.getEntityLoads());
+        }
+        if (properties.getRepeatThreshold() > 0) {
+            Map<String, Integer> repeated = stats.repeatedStatements(properties.getRepeatThreshold());
+            if (!repeated.isEmpty()) {
+                Counter.builder(N_PLUS_ONE_METRIC)
+                        .description("Requests that prepared the same statement repeat-threshold times or more")
+                        .tags(tags)
+                        .register(registry)
+                        .increment();
+                repeated.forEach((sql, count) -> log.warn("Possible N+1 in {} ({} {}): {} executions of [{}]",
+                        describe(handler), request.getMethod(), request.getRequestURI(), count, sql));
+            }
+        }
+    }
+
+    private static String describe(Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod handlerMethod = (HandlerMethod) handler;
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return String.valueOf(handler);
+    }
+}
@@ -0,0 +1,34 @@
+package com.uams.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-request query inspection, bound from {@code uams.query-inspection.*}. Slow
+ * statements are logged by Hibernate itself
+ * ({@code hibernate.session.events.log.LOG_QUERIES_SLOWER_THAN_MS}).
+ */
+@ConfigurationProperties(prefix = "uams.query-inspection")
+public class QueryInspectionProperties {
+
+    /** A statement prepared this many times in one request is reported as a possible N+1; 0 disables the check. */
+    private int repeatThreshold = 10;
+
+    /** Logs the statement and entity-load counts of every request. */
+    private boolean logRequests;
+
+    public int getRepeatThreshold() {
+        return repeatThreshold;
+    }
+
+    public void setRepeatThreshold(int repeatThreshold) {
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    public boolean isLogRequests() {
+        return logRequests;
+    }
+
+    public void setLogRequests(boolean logRequests) {
+        this.logRequests = logRequests;
+    }
+}
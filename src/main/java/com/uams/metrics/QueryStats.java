@@ -0,0 +1,46 @@
+package com.uams.metrics;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The statements and entity loads of one request. Statements are keyed by their SQL
+ * with {@code ?} placeholders, so repeated executions of the same query with different
+ * parameters (the N+1 pattern) add up.
+ */
+public class QueryStats {
+
+    private final Map<String, Integer> executions = new HashMap<>();
+    private int statements;
+    private int entityLoads;
+
+    void statement(String sql) {
+        statements++;
+        executions.merge(sql, 1, Integer::sum);
+    }
+
+    void entityLoaded() {
+        entityLoads++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    /**
+     * Statements prepared at least {@code threshold} times, most frequent first.
+     */
+    public Map<String, Integer> repeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        executions.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+}
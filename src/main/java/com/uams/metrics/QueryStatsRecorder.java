@@ -0,0 +1,61 @@
+package com.uams.metrics;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+
+/**
+ * Collects {@link QueryStats} for the current thread between {@link #begin()} and
+ * {@link #end()}: the statements Hibernate prepares (as its {@link StatementInspector})
+ * and the entities it loads (through {@link #entityLoadInterceptor()}). Nothing is
+ * recorded outside such a window. A JDBC batch is prepared once and counts as one
+ * statement.
+ */
+public class QueryStatsRecorder implements StatementInspector {
+
+    private final ThreadLocal<QueryStats> current = new ThreadLocal<>();
+
+    public void begin() {
+        current.set(new QueryStats());
+    }
+
+    /**
+     * Returns what was recorded since {@link #begin()}, or empty stats if recording was not started.
+     */
+    public QueryStats end() {
+        QueryStats stats = current.get();
+        current.remove();
+        return stats == null ? new QueryStats() : stats;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        QueryStats stats = current.get();
+        if (stats != null) {
+            stats.statement(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * A session factory interceptor that counts the entities hydrated from JDBC results.
+     */
+    public Interceptor entityLoadInterceptor() {
+        return new EntityLoadInterceptor();
+    }
+
+    private class EntityLoadInterceptor extends EmptyInterceptor {
+
+        @Override
+        public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+            QueryStats stats = current.get();
+            if (stats != null) {
+                stats.entityLoaded();
+            }
+            return false;
+        }
+    }
+}
@@ -7,13 +7,21 @@ import lombok.AllArgsConstructor;
 import lombok.ToString;
 import lombok.EqualsAndHashCode;
 
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Where;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "addresses")
+@DynamicUpdate
+@Table(name = "addresses", indexes = {
+        @Index(name = "idx_addresses_pincode", columnList = "pincode"),
+        @Index(name = "idx_addresses_city", columnList = "city")
+})
+@Where(clause = "deleted_at is null")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,10 +31,16 @@ import java.util.Set;
 public class Address {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "address_id")
+    @TableGenerator(name = "address_id", table = "id_generator", pkColumnName = "entity_name",
+            valueColumnName = "next_val", pkColumnValue = "addresses", allocationSize = 50)
     @Column(name = "address_id")
     private Long addressId;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "building_name")
     private String buildingName;
 
@@ -46,6 +60,10 @@ public class Address {
     @Column(name = "pincode", nullable = false)
     private String pincode;
 
+    // Identifies the normalised address (unique, uk_addresses_address_hash); set by AddressService
+    @Column(name = "address_hash", length = 64)
+    private String addressHash;
+
     @ManyToMany(mappedBy = "addresses", fetch = FetchType.LAZY)
     private Set<User> users = new HashSet<>();
     
@@ -1,23 +1,43 @@
 package com.uams.model;
 
 import javax.persistence.*;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.annotations.Where;
 import org.springframework.format.annotation.DateTimeFormat;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_email_order_date", columnList = "email, order_date"),
+        @Index(name = "idx_orders_order_number", columnList = "order_number"),
+        @Index(name = "idx_orders_status_order_date", columnList = "status, order_date"),
+        @Index(name = "idx_orders_order_date", columnList = "order_date"),
+        @Index(name = "idx_orders_total_amount", columnList = "total_amount")
+})
+@Where(clause = "deleted_at is null")
+@NamedEntityGraph(name = Order.WITH_USER_AND_ADDRESS, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("address")
+})
 public class Order {
 
+    // Fetches the customer and delivery address in the same statement as the orders
+    public static final String WITH_USER_AND_ADDRESS = "Order.withUserAndAddress";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_id")
+    @TableGenerator(name = "order_id", table = "id_generator", pkColumnName = "entity_name",
+            valueColumnName = "next_val", pkColumnValue = "orders", allocationSize = 50)
     @Column(name = "order_id")
     private Long orderId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "address_id")
     private Address address;
 
@@ -34,13 +54,21 @@ private LocalDateTime orderDate;
     @Column(name = "status")
     private String status;
 
-    @Column(name = "total_amount")
-    private Double totalAmount;
+    @Column(name = "total_amount", precision = 12, scale = 2)
+    private BigDecimal totalAmount;
+
+    // Set by the ingestion queue (unique, uk_orders_ingestion_key) to skip orders already written on a retry
+    @Column(name = "ingestion_key", length = 36, updatable = false)
+    private String ingestionKey;
+
+    // Placed through OrderService.placeOrder, which reserves the stock and prices the lines
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<OrderLine> lines = new ArrayList<>();
 
     // Constructors
     public Order() {}
 
-    public Order(User user, Address address, String email, String orderNumber, LocalDateTime orderDate, String status, Double totalAmount) {
+    public Order(User user, Address address, String email, String orderNumber, LocalDateTime orderDate, String status, BigDecimal totalAmount) {
         this.user = user;
         this.address = address;
         this.email = email;
@@ -107,11 +135,33 @@ private LocalDateTime orderDate;
         this.status = status;
     }
 
-    public Double getTotalAmount() {
+    public BigDecimal getTotalAmount() {
         return totalAmount;
     }
 
-    public void setTotalAmount(Double totalAmount) {
+    public void setTotalAmount(BigDecimal totalAmount) {
         this.totalAmount = totalAmount;
     }
-}
\ No newline at end of file
+
+    public String getIngestionKey() {
+        return ingestionKey;
+    }
+
+    public void setIngestionKey(String ingestionKey) {
+        this.ingestionKey = ingestionKey;
+    }
+
+    public List<OrderLine> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<OrderLine> lines) {
+        this.lines = lines;
+    }
+
+    public OrderLine addLine(Product product, int quantity) {
+        OrderLine line = new OrderLine(this, product, quantity);
+        lines.add(line);
+        return line;
+    }
+}
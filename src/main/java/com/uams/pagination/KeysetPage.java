@@ -0,0 +1,52 @@
+package com.uams.pagination;
+
+import java.util.List;
+
+/**
+ * One page of a keyset listing. {@link #getNextCursor()} is the primary key of the
+ * last row on this page and is {@code null} when there are no further rows.
+ */
+public final class KeysetPage<T> {
+
+    private final List<T> content;
+    private final KeysetPageRequest request;
+    private final Long nextCursor;
+
+    public KeysetPage(List<T> content, KeysetPageRequest request, Long nextCursor) {
+        this.content = content;
+        this.request = request;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public boolean isEmpty() {
+        return content.isEmpty();
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isFirst() {
+        return request.isFirstPage();
+    }
+
+    public int getSize() {
+        return request.getSize();
+    }
+
+    public String getSortKey() {
+        return request.getSortKey();
+    }
+
+    public String getDirection() {
+        return request.getDirection();
+    }
+}
@@ -0,0 +1,78 @@
+package com.uams.pagination;
+
+import java.util.Set;
+
+/**
+ * Describes one page of a keyset (seek) listing: the primary key of the last row
+ * already shown, the page size and an optional sort key.
+ * <p>
+ * Rows are always ordered by {@code (sortKey, id)}, so the primary key acts as the
+ * tie-breaker and the cursor stays stable while rows are inserted or deleted.
+ */
+public final class KeysetPageRequest {
+
+    public static final String PRIMARY_KEY = "id";
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private final Long after;
+    private final int size;
+    private final String sortKey;
+    private final boolean descending;
+
+    private KeysetPageRequest(Long after, int size, String sortKey, boolean descending) {
+        this.after = after;
+        this.size = size;
+        this.sortKey = sortKey;
+        this.descending = descending;
+    }
+
+    public static KeysetPageRequest of(Long after, int size, String sortKey, String direction) {
+        int boundedSize = Math.max(1, Math.min(size, MAX_SIZE));
+        String key = sortKey == null || sortKey.isBlank() ? PRIMARY_KEY : sortKey;
+        return new KeysetPageRequest(after, boundedSize, key, "desc".equalsIgnoreCase(direction));
+    }
+
+    public static KeysetPageRequest firstPage() {
+        return new KeysetPageRequest(null, DEFAULT_SIZE, PRIMARY_KEY, false);
+    }
+
+    /**
+     * Falls back to primary key ordering when the requested sort key is not one of
+     * {@code allowedSortKeys}, so arbitrary request parameters never reach the query.
+     */
+    public KeysetPageRequest restrictSortKeys(Set<String> allowedSortKeys) {
+        if (isSortedByPrimaryKey() || allowedSortKeys.contains(sortKey)) {
+            return this;
+        }
+        return new KeysetPageRequest(after, size, PRIMARY_KEY, descending);
+    }
+
+    public Long getAfter() {
+        return after;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public String getDirection() {
+        return descending ? "desc" : "asc";
+    }
+
+    public boolean isSortedByPrimaryKey() {
+        return PRIMARY_KEY.equals(sortKey);
+    }
+
+    public boolean isFirstPage() {
+        return after == null;
+    }
+}
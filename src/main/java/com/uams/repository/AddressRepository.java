@@ -1,9 +1,61 @@
 package com.uams.repository;
 
 import com.uams.model.Address;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface AddressRepository extends JpaRepository<Address, Long> {
+public interface AddressRepository extends KeysetRepository<Address, Long> {
+
+    // Uses uk_addresses_address_hash
+    Optional<Address> findByAddressHash(String addressHash);
+
+    List<Address> findByAddressHashIn(Collection<String> addressHashes);
+
+    // Uses idx_addresses_pincode
+    List<Address> findByPincode(String pincode);
+
+    // Uses idx_addresses_city
+    Slice<Address> findByCity(String city, Pageable pageable);
+
+    // Escapes LIKE wildcards; bound as a parameter, as MySQL and H2 read a backslash literal differently
+    char LIKE_ESCAPE = '\\';
+
+    /**
+     * Addresses not yet linked to the user, optionally narrowed to those whose city,
+     * street or pincode starts with {@code search}, in which {@code %}, {@code _} and
+     * {@link #LIKE_ESCAPE} must be escaped with {@link #LIKE_ESCAPE}. The link check is an
+     * anti-join on {@code user_address}, so neither side is loaded into memory.
+     */
+    @Query("select a from Address a " +
+           "where not exists (select 1 from User u join u.addresses linked " +
+           "                  where u.userId = :userId and linked.addressId = a.addressId) " +
+           "and (:search is null " +
+           "     or a.city like concat(:search, '%') escape :escape " +
+           "     or a.street like concat(:search, '%') escape :escape " +
+           "     or a.pincode like concat(:search, '%') escape :escape)")
+    Slice<Address> findAvailableForUser(@Param("userId") Long userId,
+                                        @Param("search") String search,
+                                        @Param("escape") char escape,
+                                        Pageable pageable);
+
+    /**
+     * Streams every address in id order; must be consumed inside a read-only transaction.
+     */
+    @Query("select a from Address a order by a.addressId")
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    Stream<Address> streamAll();
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.uams.repository;
+
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository with seek pagination on the primary key, id scans for set-based bulk
+ * statements and single-statement partial updates of versioned entities. Implemented for every
+ * repository by {@link SimpleKeysetRepository}, which is registered as the
+ * repository base class.
+ */
+@NoRepositoryBean
+public interface KeysetRepository<T, ID extends Serializable> extends JpaRepository<T, ID> {
+
+    /**
+     * Returns the rows that follow {@link KeysetPageRequest#getAfter()} in
+     * {@code (sortKey, id)} order, reading at most {@code size + 1} rows.
+     */
+    KeysetPage<T> findPage(KeysetPageRequest request);
+
+    /**
+     * Like {@link #findPage(KeysetPageRequest)}, restricted to the rows matching
+     * {@code filter}; a {@code null} filter matches every row.
+     */
+    KeysetPage<T> findPage(Specification<T> filter, KeysetPageRequest request);
+
+    /**
+     * Like {@link #findPage(Specification, KeysetPageRequest)}, selecting only the
+     * properties of the closed interface {@code projection}. Rows are returned as
+     * read-only projections rather than managed entities.
+     */
+    <P> KeysetPage<P> findPage(Specification<T> filter, KeysetPageRequest request, Class<P> projection);
+
+    /**
+     * Returns the ids of at most {@code limit} rows matching {@code filter}, in id order,
+     * starting after {@code after} ({@code null} for the first chunk). Only the ids are
+     * read, so the chunk can be handed to a set-based statement without loading entities.
+     */
+    List<Long> findIds(Specification<T> filter, Long after, int limit);
+
+    /**
+     * Sets only the given properties of the row with this id, in one {@code UPDATE} that
+     * also checks and increments its {@code @Version}. Instances already loaded into the
+     * persistence context are not refreshed.
+     *
+     * @return {@code false} if there is no row with this id
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the row is
+     *         no longer at {@code version}
+     */
+    boolean updateVersioned(ID id, long version, Map<String, ?> changes);
+}
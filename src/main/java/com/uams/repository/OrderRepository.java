@@ -1,10 +1,93 @@
 package com.uams.repository;
 
+import com.uams.dto.CustomerRevenue;
+import com.uams.dto.DailyRevenue;
+import com.uams.dto.OrderRevenue;
+import com.uams.dto.StatusRevenue;
 import com.uams.model.Order;
-import org.springframework.data.jpa.repository.JpaRepository;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
-    // You can add custom query methods here if needed
-}
\ No newline at end of file
+public interface OrderRepository extends KeysetRepository<Order, Long> {
+
+    @Override
+    @EntityGraph(Order.WITH_USER_AND_ADDRESS)
+    List<Order> findAll();
+
+    @Override
+    @EntityGraph(Order.WITH_USER_AND_ADDRESS)
+    KeysetPage<Order> findPage(KeysetPageRequest request);
+
+    @Override
+    @EntityGraph(Order.WITH_USER_AND_ADDRESS)
+    KeysetPage<Order> findPage(Specification<Order> filter, KeysetPageRequest request);
+
+    // Uses idx_orders_order_number
+    @EntityGraph(Order.WITH_USER_AND_ADDRESS)
+    List<Order> findByOrderNumber(String orderNumber);
+
+    // Uses uk_orders_ingestion_key; native, so soft-deleted orders count as written
+    @Query(value = "select ingestion_key from orders where ingestion_key in (:keys)", nativeQuery = true)
+    Set<String> findExistingIngestionKeys(@Param("keys") Collection<String> keys);
+
+    // Uses idx_orders_email_order_date, which also supplies the ordering
+    @EntityGraph(Order.WITH_USER_AND_ADDRESS)
+    Slice<Order> findByEmailOrderByOrderDateDesc(String email, Pageable pageable);
+
+    // Uses idx_orders_status_order_date, which also supplies the ordering
+    @EntityGraph(Order.WITH_USER_AND_ADDRESS)
+    Slice<Order> findByStatusOrderByOrderDateDesc(String status, Pageable pageable);
+
+    // Uses idx_orders_order_date as a range scan
+    @EntityGraph(Order.WITH_USER_AND_ADDRESS)
+    Slice<Order> findByOrderDateBetweenOrderByOrderDate(LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    // Revenue reports: aggregated by the database over [from, to), using idx_orders_order_date for the range
+
+    @Query("select new com.uams.dto.OrderRevenue(count(o), sum(o.totalAmount)) from Order o"
+            + " where o.orderDate >= :from and o.orderDate < :to")
+    OrderRevenue sumRevenue(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select new com.uams.dto.DailyRevenue(cast(o.orderDate as LocalDate), count(o), sum(o.totalAmount))"
+            + " from Order o where o.orderDate >= :from and o.orderDate < :to"
+            + " group by cast(o.orderDate as LocalDate) order by cast(o.orderDate as LocalDate)")
+    List<DailyRevenue> sumRevenueByDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select new com.uams.dto.StatusRevenue(o.status, count(o), sum(o.totalAmount))"
+            + " from Order o where o.orderDate >= :from and o.orderDate < :to"
+            + " group by o.status order by o.status")
+    List<StatusRevenue> sumRevenueByStatus(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Pass an unsorted page: it only limits the result to the top customers
+    @Query("select new com.uams.dto.CustomerRevenue(o.user.userId, max(o.email), count(o), sum(o.totalAmount))"
+            + " from Order o where o.orderDate >= :from and o.orderDate < :to and o.user is not null"
+            + " group by o.user.userId order by sum(o.totalAmount) desc, o.user.userId")
+    List<CustomerRevenue> sumRevenueByCustomer(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                               Pageable top);
+
+    /**
+     * Streams every order in id order; must be consumed inside a read-only transaction.
+     */
+    @Query("select o from Order o order by o.orderId")
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    Stream<Order> streamAll();
+}
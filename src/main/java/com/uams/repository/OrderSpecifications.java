@@ -0,0 +1,76 @@
+package com.uams.repository;
+
+import com.uams.model.Order;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Filters for {@link OrderRepository#findPage(Specification, com.uams.pagination.KeysetPageRequest)}.
+ * Each factory returns {@code null} when its argument is missing, which
+ * {@link Specification#where} and {@link Specification#and} treat as "no restriction",
+ * so the filters can be chained straight from optional request parameters.
+ * <p>
+ * Every filter is served by an index: status, email and the date range by the
+ * {@code idx_orders_*} indexes, the user by the {@code user_id} foreign key index and
+ * the amount range by {@code idx_orders_total_amount}.
+ */
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {
+    }
+
+    public static Specification<Order> hasStatus(String status) {
+        if (!StringUtils.hasText(status)) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("status"), status.trim());
+    }
+
+    public static Specification<Order> hasEmail(String email) {
+        if (!StringUtils.hasText(email)) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("email"), email.trim());
+    }
+
+    public static Specification<Order> belongsToUser(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        // Compares the user_id column directly, without joining users
+        return (root, query, cb) -> cb.equal(root.get("user").get("userId"), userId);
+    }
+
+    public static Specification<Order> placedBetween(LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (from == null) {
+                return cb.lessThanOrEqualTo(root.get("orderDate"), to);
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get("orderDate"), from);
+            }
+            return cb.between(root.get("orderDate"), from, to);
+        };
+    }
+
+    public static Specification<Order> totalBetween(BigDecimal min, BigDecimal max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (min == null) {
+                return cb.lessThanOrEqualTo(root.get("totalAmount"), max);
+            }
+            if (max == null) {
+                return cb.greaterThanOrEqualTo(root.get("totalAmount"), min);
+            }
+            return cb.between(root.get("totalAmount"), min, max);
+        };
+    }
+}
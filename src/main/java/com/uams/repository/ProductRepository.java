@@ -1,9 +1,50 @@
 package com.uams.repository;
 
 import com.uams.model.Product;
-import org.springframework.data.jpa.repository.JpaRepository;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
+/**
+ * Catalogue listings go through the query cache; Hibernate invalidates them whenever
+ * the products table is written through JPA, including saveProduct, deleteProduct and
+ * the bulk {@link #deleteByIdIn(Collection)}.
+ */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-}
\ No newline at end of file
+public interface ProductRepository extends KeysetRepository<Product, Long> {
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Product.CATALOGUE_CACHE_REGION)
+    })
+    List<Product> findAll();
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Product.CATALOGUE_CACHE_REGION)
+    })
+    KeysetPage<Product> findPage(KeysetPageRequest request);
+
+    // One statement for any number of ids; being a bulk delete, it also evicts the whole product region
+    @Modifying
+    @Query("delete from Product p where p.productId in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Uses idx_products_category_name, which also supplies the ordering
+    Slice<Product> findByCategoryOrderByName(String category, Pageable pageable);
+}
@@ -0,0 +1,250 @@
+package com.uams.repository;
+
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.ProjectionInformation;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.persistence.criteria.Subquery;
+import javax.persistence.metamodel.SingularAttribute;
+import java.beans.PropertyDescriptor;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository base class adding keyset pagination to {@link SimpleJpaRepository}.
+ * <p>
+ * The cursor is only the primary key of the last row shown. When a sort key is
+ * used, its value for the cursor row is looked up with a primary key subquery, so
+ * the client never has to round-trip typed sort values through the URL. Sort keys
+ * on nullable columns page through their null rows too.
+ */
+public class SimpleKeysetRepository<T, ID extends Serializable>
+        extends SimpleJpaRepository<T, ID> implements KeysetRepository<T, ID> {
+
+    private static final ProjectionFactory PROJECTION_FACTORY = new SpelAwareProxyProjectionFactory();
+
+    private final JpaEntityInformation<T, ?> entityInformation;
+    private final EntityManager entityManager;
+
+    public SimpleKeysetRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityInformation = entityInformation;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public KeysetPage<T> findPage(KeysetPageRequest request) {
+        return findPage(null, request);
+    }
+
+    @Override
+    public KeysetPage<T> findPage(Specification<T> filter, KeysetPageRequest request) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(getDomainClass());
+        Root<T> root = query.from(getDomainClass());
+
+        query.where(predicates(cb, query, root, filter, request));
+        query.orderBy(ordering(cb, root, request));
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query)
+                .setMaxResults(request.getSize() + 1);
+        // Honour @EntityGraph/@QueryHints declared on a repository's findPage override
+        getQueryHints().withFetchGraphs(entityManager).forEach(typedQuery::setHint);
+        List<T> rows = typedQuery.getResultList();
+
+        Long nextCursor = null;
+        if (rows.size() > request.getSize()) {
+            rows = new ArrayList<>(rows.subList(0, request.getSize()));
+            nextCursor = (Long) entityInformation.getId(rows.get(rows.size() - 1));
+        }
+        return new KeysetPage<>(rows, request, nextCursor);
+    }
+
+    @Override
+    public <P> KeysetPage<P> findPage(Specification<T> filter, KeysetPageRequest request, Class<P> projection) {
+        ProjectionInformation information = PROJECTION_FACTORY.getProjectionInformation(projection);
+        if (!information.isClosed()) {
+            throw new IllegalArgumentException(projection.getName() + " must be a closed interface projection");
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(getDomainClass());
+
+        // The id is always read, for the cursor, even if the projection does not expose it
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get(idAttribute()).alias(idAttribute()));
+        for (PropertyDescriptor property : information.getInputProperties()) {
+            if (!property.getName().equals(idAttribute())) {
+                selections.add(root.get(property.getName()).alias(property.getName()));
+            }
+        }
+        query.multiselect(selections);
+        query.where(predicates(cb, query, root, filter, request));
+        query.orderBy(ordering(cb, root, request));
+
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setMaxResults(request.getSize() + 1)
+                .getResultList();
+
+        Long nextCursor = null;
+        if (tuples.size() > request.getSize()) {
+            tuples = tuples.subList(0, request.getSize());
+            nextCursor = (Long) tuples.get(tuples.size() - 1).get(idAttribute());
+        }
+        List<P> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> values = new HashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                values.put(element.getAlias(), tuple.get(element));
+            }
+            rows.add(PROJECTION_FACTORY.createProjection(projection, values));
+        }
+        return new KeysetPage<>(rows, request, nextCursor);
+    }
+
+    // Read-write, so the scan is not routed to a lagging replica: the ids are about to be written
+    @Override
+    @Transactional
+    public List<Long> findIds(Specification<T> filter, Long after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(getDomainClass());
+        Path<Long> id = root.get(idAttribute());
+
+        List<Predicate> predicates = new ArrayList<>(2);
+        Predicate matching = filter == null ? null : filter.toPredicate(root, query, cb);
+        if (matching != null) {
+            predicates.add(matching);
+        }
+        if (after != null) {
+            predicates.add(cb.greaterThan(id, after));
+        }
+        query.select(id).where(predicates.toArray(new Predicate[0])).orderBy(cb.asc(id));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public boolean updateVersioned(ID id, long version, Map<String, ?> changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = cb.createCriteriaUpdate(getDomainClass());
+        Root<T> root = update.from(getDomainClass());
+
+        Path<Long> versionPath = root.get(versionAttribute());
+        changes.forEach(update::set);
+        update.set(versionPath, cb.sum(versionPath, 1L));
+        // Bound rather than inlined as literals, so the statement is the same for every row
+        ParameterExpression<Object> idParameter = cb.parameter(Object.class, "id");
+        ParameterExpression<Long> versionParameter = cb.parameter(Long.class, "version");
+        update.where(cb.equal(root.get(idAttribute()), idParameter), cb.equal(versionPath, versionParameter));
+        int updated = entityManager.createQuery(update)
+                .setParameter(idParameter, id)
+                .setParameter(versionParameter, version)
+                .executeUpdate();
+        if (updated == 1) {
+            return true;
+        }
+        // Only on failure: tell a missing row from a stale version
+        if (!existsById(id)) {
+            return false;
+        }
+        throw new ObjectOptimisticLockingFailureException(getDomainClass(), id);
+    }
+
+    private Predicate[] predicates(CriteriaBuilder cb, CriteriaQuery<?> query, Root<T> root,
+                                   Specification<T> filter, KeysetPageRequest request) {
+        List<Predicate> predicates = new ArrayList<>(2);
+        Predicate matching = filter == null ? null : filter.toPredicate(root, query, cb);
+        if (matching != null) {
+            predicates.add(matching);
+        }
+        if (!request.isFirstPage()) {
+            predicates.add(seekPredicate(cb, query, root, request));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private String idAttribute() {
+        return entityInformation.getIdAttribute().getName();
+    }
+
+    private String versionAttribute() {
+        return entityManager.getMetamodel().entity(getDomainClass()).getSingularAttributes().stream()
+                .filter(SingularAttribute::isVersion)
+                .map(SingularAttribute::getName)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(getDomainClass().getName() + " has no @Version attribute"));
+    }
+
+    private List<Order> ordering(CriteriaBuilder cb, Root<T> root, KeysetPageRequest request) {
+        List<Order> orders = new ArrayList<>(2);
+        if (!request.isSortedByPrimaryKey()) {
+            Path<?> key = root.get(request.getSortKey());
+            orders.add(request.isDescending() ? cb.desc(key) : cb.asc(key));
+        }
+        Path<?> id = root.get(idAttribute());
+        orders.add(request.isDescending() ? cb.desc(id) : cb.asc(id));
+        return orders;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate seekPredicate(CriteriaBuilder cb, CriteriaQuery<?> query, Root<T> root, KeysetPageRequest request) {
+        Path<Long> id = root.get(idAttribute());
+        Predicate beyondCursor = request.isDescending()
+                ? cb.lessThan(id, request.getAfter())
+                : cb.greaterThan(id, request.getAfter());
+        if (request.isSortedByPrimaryKey()) {
+            return beyondCursor;
+        }
+
+        Subquery<Comparable> anchor = query.subquery(Comparable.class);
+        Root<T> anchorRoot = anchor.from(getDomainClass());
+        anchor.select(anchorRoot.<Comparable>get(request.getSortKey()))
+                .where(cb.equal(anchorRoot.get(idAttribute()), request.getAfter()));
+
+        Expression<Comparable> key = root.get(request.getSortKey());
+        Predicate beyondKey = request.isDescending()
+                ? cb.lessThan(key, (Expression) anchor)
+                : cb.greaterThan(key, (Expression) anchor);
+        Predicate seek = cb.or(beyondKey, cb.and(cb.equal(key, anchor), beyondCursor));
+        if (!isOptional(request.getSortKey())) {
+            return seek;
+        }
+        // Nulls compare to nothing; MySQL sorts them first ascending and last descending
+        Predicate nullKeyBeyondCursor = cb.and(cb.isNull(anchor), cb.isNull(key), beyondCursor);
+        if (request.isDescending()) {
+            return cb.or(seek, cb.and(cb.isNotNull(anchor), cb.isNull(key)), nullKeyBeyondCursor);
+        }
+        return cb.or(seek, cb.and(cb.isNull(anchor), cb.isNotNull(key)), nullKeyBeyondCursor);
+    }
+
+    private boolean isOptional(String attribute) {
+        return entityManager.getMetamodel().entity(getDomainClass()).getSingularAttribute(attribute).isOptional();
+    }
+}
@@ -1,13 +1,40 @@
 package com.uams.repository;
 
 import com.uams.model.User;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends KeysetRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    @EntityGraph(attributePaths = "addresses")
+    Optional<User> findWithAddressesByUserId(Long userId);
     boolean existsByEmail(String email);
+
+    // Native, so soft-deleted users are included: their email stays taken (uk_users_email) until they are purged
+    @Query(value = "select user_id from users where email = :email", nativeQuery = true)
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    @Query(value = "select email from users where email in (:emails)", nativeQuery = true)
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Streams every user in id order; must be consumed inside a read-only transaction.
+     */
+    @Query("select u from User u order by u.userId")
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    Stream<User> streamAll();
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.uams.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Hashes every address stored before {@code address_hash} existed and merges the
+ * duplicates, one batch per transaction, then logs what it did. Started with the
+ * application when enabled, on a thread of its own, so the startup does not wait for it;
+ * rerunning it is harmless, as hashed addresses are never read again. A batch that keeps
+ * failing stops the job, and the next run resumes from the addresses still unhashed.
+ */
+public class AddressDeduplicationJob implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AddressDeduplicationJob.class);
+
+    // A batch fails if an address with one of its hashes is created meanwhile; the retry finds it
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final AddressDeduplicationService deduplicationService;
+    private final int batchSize;
+    private final Duration batchDelay;
+    private ExecutorService executor;
+
+    public AddressDeduplicationJob(AddressDeduplicationService deduplicationService, int batchSize, Duration batchDelay) {
+        this.deduplicationService = deduplicationService;
+        this.batchSize = batchSize;
+        this.batchDelay = batchDelay;
+    }
+
+    public void start() {
+        // Not a daemon: an offline run (no web server) keeps the JVM up until the job is done
+        executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "address-deduplication"));
+        executor.execute(this::run);
+        // the thread ends with the job
+        executor.shutdown();
+    }
+
+    private void run() {
+        try {
+            deduplicate();
+        } catch (InterruptedException e) {
+            log.warn("Address deduplication was interrupted; run it again to resume");
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Address deduplication failed; run it again to resume", e);
+        }
+    }
+
+    /**
+     * @return the number of duplicates merged
+     */
+    public long deduplicate() throws InterruptedException {
+        long start = System.nanoTime();
+        long scanned = 0;
+        long merged = 0;
+        long after = 0;
+        DeduplicationBatch batch;
+        do {
+            batch = nextBatch(after);
+            if (batch == null) {
+                log.warn("Address deduplication stopped after hashing {} addresses and merging {} duplicates;"
+                        + " run it again to resume", scanned, merged);
+                return merged;
+            }
+            scanned += batch.getScanned();
+            merged += batch.getMerged();
+            after = batch.getLastAddressId();
+            if (batch.getScanned() == batchSize && !batchDelay.isZero()) {
+                Thread.sleep(batchDelay.toMillis());
+            }
+        } while (batch.getScanned() == batchSize);
+        log.info("Address deduplication hashed {} addresses and merged {} duplicates in {} ms",
+                scanned, merged, (System.nanoTime() - start) / 1_000_000);
+        return merged;
+    }
+
+    // Stops a run still going when the application shuts down
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return the batch, or null if it failed {@link #MAX_ATTEMPTS} times
+     */
+    private DeduplicationBatch nextBatch(long after) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return deduplicationService.deduplicate(after, batchSize);
+            } catch (DuplicateKeyException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    log.error("Address deduplication batch after address {} failed {} times", after, attempt, e);
+                    return null;
+                }
+                log.debug("Retrying the address deduplication batch after {}", after, e);
+            }
+        }
+    }
+}
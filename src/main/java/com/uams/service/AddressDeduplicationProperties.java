@@ -0,0 +1,45 @@
+package com.uams.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The offline address deduplication job, bound from {@code uams.address-deduplication.*}.
+ */
+@ConfigurationProperties(prefix = "uams.address-deduplication")
+public class AddressDeduplicationProperties {
+
+    /** Run the job once the application has started. */
+    private boolean enabled = false;
+
+    /** Addresses hashed, and their duplicates merged, per transaction. */
+    private int batchSize = 500;
+
+    /** Pause between transactions, to leave room for the request traffic. */
+    private Duration batchDelay = Duration.ofMillis(100);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getBatchDelay() {
+        return batchDelay;
+    }
+
+    public void setBatchDelay(Duration batchDelay) {
+        this.batchDelay = batchDelay;
+    }
+}
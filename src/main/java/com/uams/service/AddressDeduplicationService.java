@@ -0,0 +1,15 @@
+package com.uams.service;
+
+public interface AddressDeduplicationService {
+
+    /**
+     * Hashes up to {@code limit} of the addresses stored without a hash, those with ids
+     * after {@code after}, in one transaction. An address whose hash another address
+     * already has is merged into that one: its user links and orders are moved over to it,
+     * and it is deleted.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException if an address with one of the
+     *         hashes was created meanwhile; the batch can be retried
+     */
+    DeduplicationBatch deduplicate(long after, int limit);
+}
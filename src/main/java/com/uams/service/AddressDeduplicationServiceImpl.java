@@ -0,0 +1,97 @@
+package com.uams.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain SQL throughout: a batch reads only the address columns it hashes, and moves the
+ * links and orders of all its duplicates with a fixed number of batched statements.
+ */
+@Service
+public class AddressDeduplicationServiceImpl implements AddressDeduplicationService {
+
+    // Walks the primary key; soft-deleted addresses are left to the purge
+    private static final String FIND_UNHASHED_SQL = "select address_id, building_name, street, city, state, pincode"
+            + " from addresses where address_id > :after and address_hash is null and deleted_at is null"
+            + " order by address_id limit :limit";
+    private static final String FIND_HASHED_SQL = "select address_hash, address_id from addresses where address_hash in (:hashes)";
+    private static final String SET_HASH_SQL = "update addresses set address_hash = :hash where address_id = :id";
+    // A user linked to both addresses keeps a single link
+    private static final String MOVE_LINKS_SQL = "insert into user_address (user_id, address_id)"
+            + " select ua.user_id, :keeper from user_address ua where ua.address_id = :duplicate and not exists"
+            + " (select 1 from user_address k where k.user_id = ua.user_id and k.address_id = :keeper)";
+    private static final String MOVE_ORDERS_SQL = "update orders set address_id = :keeper where address_id = :duplicate";
+    private static final String DELETE_LINKS_SQL = "delete from user_address where address_id in (:duplicates)";
+    private static final String DELETE_ADDRESSES_SQL = "delete from addresses where address_id in (:duplicates)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public AddressDeduplicationServiceImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public DeduplicationBatch deduplicate(long after, int limit) {
+        Map<String, List<Long>> idsByHash = new LinkedHashMap<>();
+        long[] last = {after};
+        jdbcTemplate.query(FIND_UNHASHED_SQL, Map.of("after", after, "limit", limit), (RowCallbackHandler) row -> {
+            long id = row.getLong("address_id");
+            String hash = AddressNormalizer.hash(row.getString("building_name"), row.getString("street"),
+                    row.getString("city"), row.getString("state"), row.getString("pincode"));
+            idsByHash.computeIfAbsent(hash, key -> new ArrayList<>()).add(id);
+            last[0] = id;
+        });
+        if (idsByHash.isEmpty()) {
+            return new DeduplicationBatch(0, 0, after);
+        }
+
+        Map<String, Long> keepers = new HashMap<>();
+        jdbcTemplate.query(FIND_HASHED_SQL, Map.of("hashes", idsByHash.keySet()),
+                (RowCallbackHandler) row -> keepers.put(row.getString("address_hash"), row.getLong("address_id")));
+
+        int scanned = 0;
+        List<SqlParameterSource> hashed = new ArrayList<>();
+        List<SqlParameterSource> moves = new ArrayList<>();
+        List<Long> duplicates = new ArrayList<>();
+        for (Map.Entry<String, List<Long>> entry : idsByHash.entrySet()) {
+            List<Long> ids = entry.getValue();
+            scanned += ids.size();
+            // The oldest address is kept, unless one with the hash was stored since hashing began
+            Long keeper = keepers.get(entry.getKey());
+            int first = 0;
+            if (keeper == null) {
+                keeper = ids.get(0);
+                hashed.add(new MapSqlParameterSource("hash", entry.getKey()).addValue("id", keeper));
+                first = 1;
+            }
+            for (Long duplicate : ids.subList(first, ids.size())) {
+                moves.add(new MapSqlParameterSource("keeper", keeper).addValue("duplicate", duplicate));
+                duplicates.add(duplicate);
+            }
+        }
+
+        jdbcTemplate.batchUpdate(SET_HASH_SQL, hashed.toArray(new SqlParameterSource[0]));
+        if (!duplicates.isEmpty()) {
+            SqlParameterSource[] pairs = moves.toArray(new SqlParameterSource[0]);
+            jdbcTemplate.batchUpdate(MOVE_LINKS_SQL, pairs);
+            jdbcTemplate.batchUpdate(MOVE_ORDERS_SQL, pairs);
+            Map<String, List<Long>> parameters = Map.of("duplicates", duplicates);
+            jdbcTemplate.update(DELETE_LINKS_SQL, parameters);
+            jdbcTemplate.update(DELETE_ADDRESSES_SQL, parameters);
+        }
+        return new DeduplicationBatch(scanned, duplicates.size(), last[0]);
+    }
+}
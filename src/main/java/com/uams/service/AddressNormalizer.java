@@ -0,0 +1,81 @@
+package com.uams.service;
+
+import com.uams.model.Address;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical form of an address, and the {@code address_hash} that identifies it.
+ * <p>
+ * Stored values are trimmed, with runs of whitespace collapsed and spaces removed from
+ * the pincode. The hash is also insensitive to case and to the commas and full stops
+ * people type inconsistently, so "12, Main St." and "12 main st" are the same address.
+ */
+final class AddressNormalizer {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PUNCTUATION = Pattern.compile("[.,]");
+    // Cannot be typed into a form, so no field can run into the next
+    private static final char SEPARATOR = '\u001f';
+
+    private AddressNormalizer() {
+    }
+
+    /**
+     * Normalises the address's fields in place and sets its {@code addressHash}.
+     */
+    static Address normalize(Address address) {
+        address.setBuildingName(clean(address.getBuildingName()));
+        address.setStreet(clean(address.getStreet()));
+        address.setCity(clean(address.getCity()));
+        address.setState(clean(address.getState()));
+        address.setPincode(cleanPincode(address.getPincode()));
+        address.setAddressHash(hash(address.getBuildingName(), address.getStreet(), address.getCity(),
+                address.getState(), address.getPincode()));
+        return address;
+    }
+
+    static String clean(String value) {
+        if (value == null) {
+            return null;
+        }
+        String cleaned = WHITESPACE.matcher(value.trim()).replaceAll(" ");
+        return cleaned.isEmpty() ? null : cleaned;
+    }
+
+    static String cleanPincode(String pincode) {
+        return pincode == null ? null : clean(WHITESPACE.matcher(pincode).replaceAll(""));
+    }
+
+    /**
+     * The hash of the fields as stored or not yet normalised; both give the same result.
+     */
+    static String hash(String buildingName, String street, String city, String state, String pincode) {
+        String key = key(buildingName) + SEPARATOR + key(street) + SEPARATOR + key(city) + SEPARATOR
+                + key(state) + SEPARATOR + key(cleanPincode(pincode));
+        byte[] digest = sha256().digest(key.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    private static String key(String value) {
+        String cleaned = value == null ? null : clean(PUNCTUATION.matcher(value).replaceAll(" "));
+        return cleaned == null ? "" : cleaned.toLowerCase(Locale.ROOT);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM has to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
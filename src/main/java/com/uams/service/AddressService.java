@@ -1,13 +1,62 @@
 package com.uams.service;
 
+import com.uams.dto.AddressListItem;
+import com.uams.dto.AddressPatch;
 import com.uams.model.Address;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface AddressService {
     List<Address> getAllAddresses();
+    KeysetPage<Address> getAddressesPage(KeysetPageRequest pageRequest);
+    KeysetPage<AddressListItem> getAddressListPage(KeysetPageRequest pageRequest);
     Optional<Address> getAddressById(Long id);
+    Slice<Address> getAvailableAddressesForUser(Long userId, String search);
+
+    /**
+     * Normalises the address and, if it is new, stores it unless an address with the same
+     * normalised fields exists already, which is returned instead.
+     */
     Address saveAddress(Address address);
+
+    /**
+     * Writes the patch's non-null properties in one {@code UPDATE}, provided the address
+     * is still at the patch's version. The values are normalised, and the address's hash
+     * recomputed from its stored fields.
+     *
+     * @return false if there is no such address
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the
+     *         address has been changed since that version
+     * @throws org.springframework.dao.DataIntegrityViolationException if the address would
+     *         become the same as another one
+     */
+    boolean updateAddress(Long id, AddressPatch patch);
+
+    /**
+     * {@link #saveAddress(Address)} for a list of new addresses, in one transaction: returns,
+     * in the same order, each address as stored, or the existing address it duplicates.
+     */
+    List<Address> saveAllAddresses(List<Address> addresses);
+
+    /**
+     * The normalised form of these new addresses, without duplicates of each other or of
+     * stored addresses.
+     */
+    List<Address> withoutExistingAddresses(List<Address> addresses);
+
     void deleteAddress(Long id);
+
+    /**
+     * Deletes the addresses, or soft-deletes them in soft deletion mode, with set-based
+     * statements. They are unlinked from their users; orders keep their copy of the email
+     * but lose the link to the address.
+     *
+     * @return the number of addresses deleted
+     */
+    int deleteAddresses(Collection<Long> ids);
 }
\ No newline at end of file
@@ -1,40 +1,189 @@
 package com.uams.service;
 
+import com.uams.dto.AddressListItem;
+import com.uams.dto.AddressPatch;
 import com.uams.model.Address;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
 import com.uams.repository.AddressRepository;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class AddressServiceImpl implements AddressService {
 
+    // Upper bound for the "add existing address" picker; narrow it with a search term
+    static final int AVAILABLE_ADDRESS_LIMIT = 50;
+
+    private static final List<String> HASHED_PROPERTIES = List.of("buildingName", "street", "city", "state", "pincode");
+
+    private static final Set<String> SORT_KEYS = Set.of("city", "state", "pincode", "street");
+
     private final AddressRepository addressRepository;
+    private final BulkDeletionService deletionService;
 
     @Autowired
-    public AddressServiceImpl(AddressRepository addressRepository) {
+    public AddressServiceImpl(AddressRepository addressRepository, BulkDeletionService deletionService) {
         this.addressRepository = addressRepository;
+        this.deletionService = deletionService;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Address> getAllAddresses() {
         return addressRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Address> getAddressesPage(KeysetPageRequest pageRequest) {
+        return addressRepository.findPage(pageRequest.restrictSortKeys(SORT_KEYS));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<AddressListItem> getAddressListPage(KeysetPageRequest pageRequest) {
+        return addressRepository.findPage(null, pageRequest.restrictSortKeys(SORT_KEYS), AddressListItem.class);
+    }
+
+    // Feeds the edit form, so it reads the primary: a lagging replica could show an outdated version
+    @Override
+    @Transactional
     public Optional<Address> getAddressById(Long id) {
         return addressRepository.findById(id);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Address> getAvailableAddressesForUser(Long userId, String search) {
+        String term = search == null || search.isBlank() ? null : escapeLike(search.trim());
+        return addressRepository.findAvailableForUser(userId, term, AddressRepository.LIKE_ESCAPE,
+                PageRequest.of(0, AVAILABLE_ADDRESS_LIMIT, Sort.by("addressId")));
+    }
+
+    // A typed % or _ is matched literally rather than as a wildcard
+    private static String escapeLike(String term) {
+        StringBuilder escaped = new StringBuilder(term.length());
+        for (char c : term.toCharArray()) {
+            if (c == AddressRepository.LIKE_ESCAPE || c == '%' || c == '_') {
+                escaped.append(AddressRepository.LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    // Not transactional, so an insert that loses a race with the same address only rolls back itself
     @Override
     public Address saveAddress(Address address) {
-        return addressRepository.save(address);
+        AddressNormalizer.normalize(address);
+        if (address.getAddressId() != null) {
+            return addressRepository.save(address);
+        }
+        String hash = address.getAddressHash();
+        Optional<Address> existing = addressRepository.findByAddressHash(hash);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        try {
+            return addressRepository.saveAndFlush(address);
+        } catch (DataIntegrityViolationException e) {
+            // created concurrently
+            return addressRepository.findByAddressHash(hash).orElseThrow(() -> e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public boolean updateAddress(Long id, AddressPatch patch) {
+        Map<String, Object> changes = patch.changes();
+        if (changes.isEmpty()) {
+            return addressRepository.updateVersioned(id, patch.getVersion(), changes);
+        }
+        // Every patchable property is part of the hash, which needs the unchanged ones too
+        Optional<Address> current = addressRepository.findById(id);
+        if (current.isEmpty()) {
+            return false;
+        }
+        Address updated = new Address();
+        BeanWrapper stored = new BeanWrapperImpl(current.get());
+        BeanWrapper properties = new BeanWrapperImpl(updated);
+        for (String property : HASHED_PROPERTIES) {
+            properties.setPropertyValue(property, stored.getPropertyValue(property));
+        }
+        properties.setPropertyValues(changes);
+        AddressNormalizer.normalize(updated);
+
+        Map<String, Object> normalized = new LinkedHashMap<>();
+        for (String property : changes.keySet()) {
+            normalized.put(property, properties.getPropertyValue(property));
+        }
+        normalized.put("addressHash", updated.getAddressHash());
+        return addressRepository.updateVersioned(id, patch.getVersion(), normalized);
+    }
+
+    @Override
+    @Transactional
+    public List<Address> saveAllAddresses(List<Address> addresses) {
+        addresses.forEach(AddressNormalizer::normalize);
+        Map<String, Address> byHash = new HashMap<>();
+        for (Address stored : addressRepository.findByAddressHashIn(hashes(addresses))) {
+            byHash.put(stored.getAddressHash(), stored);
+        }
+        List<Address> fresh = new ArrayList<>();
+        List<Address> saved = new ArrayList<>(addresses.size());
+        for (Address address : addresses) {
+            Address stored = byHash.putIfAbsent(address.getAddressHash(), address);
+            if (stored == null) {
+                fresh.add(address);
+            }
+            saved.add(stored == null ? address : stored);
+        }
+        addressRepository.saveAll(fresh);
+        return saved;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Address> withoutExistingAddresses(List<Address> addresses) {
+        Map<String, Address> byHash = new LinkedHashMap<>();
+        for (Address address : addresses) {
+            byHash.putIfAbsent(AddressNormalizer.normalize(address).getAddressHash(), address);
+        }
+        for (Address stored : addressRepository.findByAddressHashIn(byHash.keySet())) {
+            byHash.remove(stored.getAddressHash());
+        }
+        return new ArrayList<>(byHash.values());
+    }
+
+    private static Set<String> hashes(List<Address> addresses) {
+        return addresses.stream().map(Address::getAddressHash).collect(Collectors.toSet());
     }
 
     @Override
     public void deleteAddress(Long id) {
-        addressRepository.deleteById(id);
+        deleteAddresses(List.of(id));
+    }
+
+    @Override
+    public int deleteAddresses(Collection<Long> ids) {
+        return deletionService.delete(DeletableTable.ADDRESSES, ids);
     }
 }
\ No newline at end of file
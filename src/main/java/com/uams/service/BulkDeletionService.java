@@ -0,0 +1,26 @@
+package com.uams.service;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BulkDeletionService {
+
+    /**
+     * Deletes the rows with these ids with set-based statements over chunks of ids, one
+     * transaction per chunk: if a chunk fails, the chunks before it stay deleted. In
+     * {@link DeletionProperties.Mode#SOFT soft} mode the rows are only stamped with
+     * {@code deleted_at}, which hides them, and left for the purge; the statements that
+     * detach them from orders and links still run here.
+     *
+     * @return the number of rows deleted; ids that do not exist, or are already deleted, are ignored
+     */
+    int delete(DeletableTable table, Collection<Long> ids);
+
+    /**
+     * Hard-deletes up to {@code limit} soft-deleted rows, with their dependent rows, in
+     * one transaction.
+     *
+     * @return the ids of the rows purged; fewer than {@code limit} once none are left
+     */
+    List<Long> purge(DeletableTable table, int limit);
+}
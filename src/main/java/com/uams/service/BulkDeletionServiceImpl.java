@@ -0,0 +1,86 @@
+package com.uams.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the deletes as plain SQL: none of these tables is in the second-level cache, and
+ * nothing is loaded, so a chunk of ids costs a fixed number of statements however many
+ * join rows or order lines it has. Each chunk commits on its own, so a long list of ids
+ * never holds its locks, or the undo log, for the whole delete.
+ */
+@Service
+public class BulkDeletionServiceImpl implements BulkDeletionService {
+
+    // Bounds the IN lists, and the rows each statement locks
+    static final int CHUNK_SIZE = 500;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DeletionProperties properties;
+
+    @Autowired
+    public BulkDeletionServiceImpl(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                   DeletionProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    // Not transactional: each chunk runs in a transaction of its own, unless the caller has one
+    @Override
+    public int delete(DeletableTable table, Collection<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        int deleted = 0;
+        for (int start = 0; start < distinct.size(); start += CHUNK_SIZE) {
+            List<Long> chunk = distinct.subList(start, Math.min(start + CHUNK_SIZE, distinct.size()));
+            deleted += transactionTemplate.execute(status -> properties.getMode() == DeletionProperties.Mode.SOFT
+                    ? softDelete(table, chunk)
+                    : hardDelete(table, chunk));
+        }
+        return deleted;
+    }
+
+    @Override
+    @Transactional
+    public List<Long> purge(DeletableTable table, int limit) {
+        List<Long> ids = jdbcTemplate.queryForList(table.findSoftDeletedStatement(), Map.of("limit", limit), Long.class);
+        if (!ids.isEmpty()) {
+            hardDelete(table, ids);
+        }
+        return ids;
+    }
+
+    private int softDelete(DeletableTable table, List<Long> ids) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ids", ids)
+                .addValue("deletedAt", LocalDateTime.now());
+        int deleted = jdbcTemplate.update(table.softDeleteStatement(), parameters);
+        for (String statement : table.detachStatements()) {
+            jdbcTemplate.update(statement, parameters);
+        }
+        return deleted;
+    }
+
+    private int hardDelete(DeletableTable table, List<Long> ids) {
+        Map<String, List<Long>> parameters = Map.of("ids", ids);
+        for (String statement : table.detachStatements()) {
+            jdbcTemplate.update(statement, parameters);
+        }
+        for (String statement : table.dependentStatements()) {
+            jdbcTemplate.update(statement, parameters);
+        }
+        return jdbcTemplate.update(table.deleteStatement(), parameters);
+    }
+}
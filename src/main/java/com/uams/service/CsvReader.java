@@ -0,0 +1,126 @@
+package com.uams.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal streaming RFC 4180 reader: one record is parsed at a time, so an upload is
+ * never held in memory as a whole. The first record is treated as the header and
+ * records are returned as column-name to value maps.
+ */
+final class CsvReader implements Closeable {
+
+    // Excel and Notepad start UTF-8 files with one; it would otherwise be part of the first column's name
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final BufferedReader reader;
+    private final List<String> header;
+    private long lineNumber;
+
+    CsvReader(Reader reader) throws IOException {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        List<String> columns = readFields();
+        if (columns == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        if (columns.get(0).indexOf(BYTE_ORDER_MARK) == 0) {
+            columns.set(0, columns.get(0).substring(1));
+        }
+        this.header = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            header.add(column.trim());
+        }
+    }
+
+    /**
+     * Returns the next record, or {@code null} at the end of the input.
+     */
+    Map<String, String> next() throws IOException {
+        List<String> fields = readFields();
+        while (fields != null && fields.size() == 1 && fields.get(0).isEmpty()) {
+            fields = readFields(); // skip blank lines
+        }
+        if (fields == null) {
+            return null;
+        }
+        if (fields.size() != header.size()) {
+            throw new IllegalArgumentException("expected " + header.size() + " columns but found " + fields.size());
+        }
+        Map<String, String> record = new HashMap<>(header.size() * 2);
+        for (int i = 0; i < fields.size(); i++) {
+            record.put(header.get(i), fields.get(i));
+        }
+        return record;
+    }
+
+    /**
+     * Line number where the most recently read record ended.
+     */
+    long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a quoted field is still open at the end of the input
+     */
+    private List<String> readFields() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        long quoteLine = 0;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                quoteLine = lineNumber + 1;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        if (quoted) {
+            // a newline ending the input has been counted as part of the field
+            if (field.length() == 0 || field.charAt(field.length() - 1) != '\n') {
+                lineNumber++;
+            }
+            throw new IllegalArgumentException("quoted field opened on line " + quoteLine + " is never closed");
+        }
+        lineNumber++;
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,38 @@
+package com.uams.service;
+
+/**
+ * Outcome of one {@link AddressDeduplicationService#deduplicate(long, int)} batch.
+ */
+public final class DeduplicationBatch {
+
+    private final int scanned;
+    private final int merged;
+    private final long lastAddressId;
+
+    public DeduplicationBatch(int scanned, int merged, long lastAddressId) {
+        this.scanned = scanned;
+        this.merged = merged;
+        this.lastAddressId = lastAddressId;
+    }
+
+    /**
+     * Addresses hashed in this batch, including the merged ones.
+     */
+    public int getScanned() {
+        return scanned;
+    }
+
+    /**
+     * Duplicates merged into another address and deleted.
+     */
+    public int getMerged() {
+        return merged;
+    }
+
+    /**
+     * Where the next batch starts.
+     */
+    public long getLastAddressId() {
+        return lastAddressId;
+    }
+}
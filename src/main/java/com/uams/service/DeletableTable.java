@@ -0,0 +1,68 @@
+package com.uams.service;
+
+import java.util.List;
+
+/**
+ * The tables that can be bulk and soft deleted, with the statements that keep the rows
+ * referring to them consistent. {@code :ids} is the list of ids being deleted.
+ */
+public enum DeletableTable {
+
+    // Orders keep the customer's email, so they outlive the user and address they pointed to
+    USERS("users", "user_id", "",
+            List.of("update orders set user_id = null where user_id in (:ids)",
+                    "delete from user_address where user_id in (:ids)"),
+            List.of()),
+    // A hidden address gives up its hash, so the same address can be created again
+    ADDRESSES("addresses", "address_id", ", address_hash = null",
+            List.of("update orders set address_id = null where address_id in (:ids)",
+                    "delete from user_address where address_id in (:ids)"),
+            List.of()),
+    ORDERS("orders", "order_id", "",
+            List.of(),
+            List.of("delete from order_lines where order_id in (:ids)"));
+
+    private final String table;
+    private final String idColumn;
+    private final String softDeleteAssignments;
+    private final List<String> detachStatements;
+    private final List<String> dependentStatements;
+
+    DeletableTable(String table, String idColumn, String softDeleteAssignments,
+                   List<String> detachStatements, List<String> dependentStatements) {
+        this.table = table;
+        this.idColumn = idColumn;
+        this.softDeleteAssignments = softDeleteAssignments;
+        this.detachStatements = detachStatements;
+        this.dependentStatements = dependentStatements;
+    }
+
+    /**
+     * Clear references from rows that outlive the deleted ones. Run by soft deletes too:
+     * a lazy reference to a hidden row could not be loaded, and a hidden address must not
+     * stay in its users' address lists.
+     */
+    List<String> detachStatements() {
+        return detachStatements;
+    }
+
+    /**
+     * Delete the rows that belong to the deleted ones; deferred to the purge by soft deletes.
+     */
+    List<String> dependentStatements() {
+        return dependentStatements;
+    }
+
+    String deleteStatement() {
+        return "delete from " + table + " where " + idColumn + " in (:ids)";
+    }
+
+    String softDeleteStatement() {
+        return "update " + table + " set deleted_at = :deletedAt" + softDeleteAssignments + " where " + idColumn + " in (:ids) and deleted_at is null";
+    }
+
+    // Uses idx_<table>_deleted_at
+    String findSoftDeletedStatement() {
+        return "select " + idColumn + " from " + table + " where deleted_at is not null order by deleted_at limit :limit";
+    }
+}
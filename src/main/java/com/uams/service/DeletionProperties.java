@@ -0,0 +1,62 @@
+package com.uams.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * How users, addresses and orders are deleted, bound from {@code uams.deletion.*}.
+ */
+@ConfigurationProperties(prefix = "uams.deletion")
+public class DeletionProperties {
+
+    public enum Mode {
+        /** Rows are deleted, with their join rows and order lines, in the deleting transaction. */
+        HARD,
+        /** Rows are stamped with {@code deleted_at} and hidden; {@link SoftDeletePurger} deletes them later. */
+        SOFT
+    }
+
+    private Mode mode = Mode.HARD;
+
+    /** Pause between purge runs; zero disables the purge. */
+    private Duration purgeInterval = Duration.ofMinutes(1);
+
+    /** Soft-deleted rows hard-deleted per purge transaction. */
+    private int purgeBatchSize = 100;
+
+    /** Pause between purge transactions, so the purge never holds locks for long. */
+    private Duration purgeBatchDelay = Duration.ofMillis(200);
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+
+    public int getPurgeBatchSize() {
+        return purgeBatchSize;
+    }
+
+    public void setPurgeBatchSize(int purgeBatchSize) {
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    public Duration getPurgeBatchDelay() {
+        return purgeBatchDelay;
+    }
+
+    public void setPurgeBatchDelay(Duration purgeBatchDelay) {
+        this.purgeBatchDelay = purgeBatchDelay;
+    }
+}
@@ -0,0 +1,10 @@
+package com.uams.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+    void exportOrders(ExportFormat format, OutputStream out) throws IOException;
+    void exportUsers(ExportFormat format, OutputStream out) throws IOException;
+    void exportAddresses(ExportFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,175 @@
+package com.uams.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uams.model.Address;
+import com.uams.model.Order;
+import com.uams.model.User;
+import com.uams.repository.AddressRepository;
+import com.uams.repository.OrderRepository;
+import com.uams.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes whole tables to an output stream row by row. Rows come from a
+ * {@code Stream<T>} repository query with a JDBC fetch size, inside a read-only
+ * transaction, and the persistence context is cleared every {@link #FLUSH_INTERVAL}
+ * rows, so heap use stays constant however many rows are exported.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    static final int FLUSH_INTERVAL = 1000;
+
+    private static final Map<String, Function<Order, Object>> ORDER_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<User, Object>> USER_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<Address, Object>> ADDRESS_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        ORDER_COLUMNS.put("orderId", Order::getOrderId);
+        ORDER_COLUMNS.put("orderNumber", Order::getOrderNumber);
+        ORDER_COLUMNS.put("email", Order::getEmail);
+        ORDER_COLUMNS.put("orderDate", Order::getOrderDate);
+        ORDER_COLUMNS.put("status", Order::getStatus);
+        ORDER_COLUMNS.put("totalAmount", Order::getTotalAmount);
+        // Reading the id of a lazy proxy does not initialise it
+        ORDER_COLUMNS.put("userId", order -> order.getUser() == null ? null : order.getUser().getUserId());
+        ORDER_COLUMNS.put("addressId", order -> order.getAddress() == null ? null : order.getAddress().getAddressId());
+
+        // Passwords are never exported
+        USER_COLUMNS.put("userId", User::getUserId);
+        USER_COLUMNS.put("email", User::getEmail);
+        USER_COLUMNS.put("firstName", User::getFirstName);
+        USER_COLUMNS.put("lastName", User::getLastName);
+        USER_COLUMNS.put("mobileNumber", User::getMobileNumber);
+
+        ADDRESS_COLUMNS.put("addressId", Address::getAddressId);
+        ADDRESS_COLUMNS.put("buildingName", Address::getBuildingName);
+        ADDRESS_COLUMNS.put("street", Address::getStreet);
+        ADDRESS_COLUMNS.put("city", Address::getCity);
+        ADDRESS_COLUMNS.put("state", Address::getState);
+        ADDRESS_COLUMNS.put("pincode", Address::getPincode);
+    }
+
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final AddressRepository addressRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ExportServiceImpl(OrderRepository orderRepository, UserRepository userRepository,
+                             AddressRepository addressRepository, EntityManager entityManager,
+                             ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.userRepository = userRepository;
+        this.addressRepository = addressRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Order> orders = orderRepository.streamAll()) {
+            export(orders, ORDER_COLUMNS, format, out);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<User> users = userRepository.streamAll()) {
+            export(users, USER_COLUMNS, format, out);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAddresses(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Address> addresses = addressRepository.streamAll()) {
+            export(addresses, ADDRESS_COLUMNS, format, out);
+        }
+    }
+
+    private <T> void export(Stream<T> rows, Map<String, Function<T, Object>> columns,
+                            ExportFormat format, OutputStream out) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writeCsv(rows.iterator(), columns, out);
+        } else {
+            writeJsonLines(rows.iterator(), columns, out);
+        }
+    }
+
+    private <T> void writeCsv(Iterator<T> rows, Map<String, Function<T, Object>> columns,
+                              OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", columns.keySet()));
+        writer.write('\n');
+        long count = 0;
+        while (rows.hasNext()) {
+            T row = rows.next();
+            boolean first = true;
+            for (Function<T, Object> column : columns.values()) {
+                if (!first) {
+                    writer.write(',');
+                }
+                writer.write(csvValue(column.apply(row)));
+                first = false;
+            }
+            writer.write('\n');
+            if (++count % FLUSH_INTERVAL == 0) {
+                writer.flush();
+                entityManager.clear();
+            }
+        }
+        writer.flush();
+    }
+
+    private <T> void writeJsonLines(Iterator<T> rows, Map<String, Function<T, Object>> columns,
+                                    OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        long count = 0;
+        while (rows.hasNext()) {
+            T row = rows.next();
+            generator.writeStartObject();
+            for (Map.Entry<String, Function<T, Object>> column : columns.entrySet()) {
+                generator.writeObjectField(column.getKey(), column.getValue().apply(row));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            if (++count % FLUSH_INTERVAL == 0) {
+                generator.flush();
+                entityManager.clear();
+            }
+        }
+        generator.flush();
+    }
+
+    private static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
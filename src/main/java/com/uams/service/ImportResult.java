@@ -0,0 +1,70 @@
+package com.uams.service;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: how many rows were written, skipped or rejected, and
+ * the resulting throughput.
+ */
+public final class ImportResult {
+
+    private final String entityName;
+    private final long imported;
+    private final long duplicates;
+    private final long rejected;
+    private final List<String> errors;
+    private final long elapsedMillis;
+
+    public ImportResult(String entityName, long imported, long duplicates, long rejected,
+                        List<String> errors, long elapsedMillis) {
+        this.entityName = entityName;
+        this.imported = imported;
+        this.duplicates = duplicates;
+        this.rejected = rejected;
+        this.errors = List.copyOf(errors);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * The first few rejected rows, as {@code "line N: reason"}.
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return imported * 1000.0 / Math.max(elapsedMillis, 1);
+    }
+
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder(String.format("Imported %d %s in %.1f s (%.0f rows/sec)",
+                imported, entityName, elapsedMillis / 1000.0, getRowsPerSecond()));
+        if (duplicates > 0) {
+            summary.append(", ").append(duplicates).append(" duplicates skipped");
+        }
+        if (rejected > 0) {
+            summary.append(", ").append(rejected).append(" rejected");
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,10 @@
+package com.uams.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ImportService {
+    ImportResult importUsers(InputStream csv) throws IOException;
+    ImportResult importAddresses(InputStream csv) throws IOException;
+    ImportResult importProducts(InputStream csv) throws IOException;
+}
@@ -0,0 +1,214 @@
+package com.uams.service;
+
+import com.uams.model.Address;
+import com.uams.model.Product;
+import com.uams.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Streams CSV uploads into the database in fixed-size chunks. Each chunk is written
+ * by a {@code saveAll*} service call in its own transaction, which Hibernate sends
+ * as JDBC batches, and the persistence context is cleared afterwards so memory use
+ * does not grow with the size of the file.
+ */
+@Service
+public class ImportServiceImpl implements ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportServiceImpl.class);
+
+    // A multiple of hibernate.jdbc.batch_size
+    static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 10;
+
+    private final UserService userService;
+    private final AddressService addressService;
+    private final ProductService productService;
+    private final Validator validator;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public ImportServiceImpl(UserService userService, AddressService addressService, ProductService productService,
+                             Validator validator, EntityManager entityManager) {
+        this.userService = userService;
+        this.addressService = addressService;
+        this.productService = productService;
+        this.validator = validator;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Columns: email, firstName, lastName, mobileNumber, password. Emails that already
+     * exist, or repeat within the file, are skipped.
+     */
+    @Override
+    public ImportResult importUsers(InputStream csv) throws IOException {
+        return importCsv("users", csv, record -> {
+            User user = new User();
+            user.setEmail(column(record, "email"));
+            user.setFirstName(column(record, "firstName"));
+            user.setLastName(column(record, "lastName"));
+            user.setMobileNumber(column(record, "mobileNumber"));
+            user.setPassword(column(record, "password"));
+            return user;
+        }, this::withoutExistingEmails, userService::saveAllUsers);
+    }
+
+    /**
+     * Columns: buildingName, street, city, state, pincode. Addresses that are already stored,
+     * after normalisation, are counted as duplicates.
+     */
+    @Override
+    public ImportResult importAddresses(InputStream csv) throws IOException {
+        return importCsv("addresses", csv, record -> {
+            Address address = new Address();
+            address.setBuildingName(column(record, "buildingName"));
+            address.setStreet(column(record, "street"));
+            address.setCity(column(record, "city"));
+            address.setState(column(record, "state"));
+            address.setPincode(column(record, "pincode"));
+            return address;
+        }, addressService::withoutExistingAddresses, addressService::saveAllAddresses);
+    }
+
+    /**
+     * Columns: name, description, price, stockQuantity, category, imageUrl.
+     */
+    @Override
+    public ImportResult importProducts(InputStream csv) throws IOException {
+        return importCsv("products", csv, record -> {
+            String name = column(record, "name");
+            String price = column(record, "price");
+            if (name == null || price == null) {
+                throw new IllegalArgumentException("name and price are required");
+            }
+            String stock = column(record, "stockQuantity");
+            return new Product(name, column(record, "description"), new BigDecimal(price),
+                    stock == null ? null : Integer.valueOf(stock),
+                    column(record, "category"), column(record, "imageUrl"));
+        }, UnaryOperator.identity(), productService::saveAllProducts);
+    }
+
+    private <T> ImportResult importCsv(String entityName, InputStream input,
+                                       Function<Map<String, String>, T> mapper,
+                                       UnaryOperator<List<T>> deduplicator,
+                                       Consumer<List<T>> writer) throws IOException {
+        long start = System.nanoTime();
+        long imported = 0;
+        long duplicates = 0;
+        long rejected = 0;
+        List<String> errors = new ArrayList<>();
+        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (CsvReader reader = new CsvReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, String> record;
+            while ((record = nextRecord(reader, errors)) != null) {
+                if (record.isEmpty()) {
+                    rejected++;
+                    continue;
+                }
+                try {
+                    T entity = mapper.apply(record);
+                    Set<ConstraintViolation<T>> violations = validator.validate(entity);
+                    if (!violations.isEmpty()) {
+                        throw new IllegalArgumentException(violations.iterator().next().getMessage());
+                    }
+                    chunk.add(entity);
+                } catch (IllegalArgumentException e) {
+                    rejected++;
+                    reportError(errors, reader.getLineNumber(), e.getMessage());
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    long written = writeChunk(chunk, deduplicator, writer);
+                    imported += written;
+                    duplicates += chunk.size() - written;
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                long written = writeChunk(chunk, deduplicator, writer);
+                imported += written;
+                duplicates += chunk.size() - written;
+            }
+        }
+
+        ImportResult result = new ImportResult(entityName, imported, duplicates, rejected, errors,
+                (System.nanoTime() - start) / 1_000_000);
+        log.info(result.getSummary());
+        return result;
+    }
+
+    /**
+     * Reads the next record; a malformed record is reported and returned as an empty map.
+     */
+    private Map<String, String> nextRecord(CsvReader reader, List<String> errors) throws IOException {
+        try {
+            return reader.next();
+        } catch (IllegalArgumentException e) {
+            reportError(errors, reader.getLineNumber(), e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private <T> long writeChunk(List<T> chunk, UnaryOperator<List<T>> deduplicator, Consumer<List<T>> writer) {
+        List<T> rows = deduplicator.apply(chunk);
+        if (!rows.isEmpty()) {
+            writer.accept(rows);
+        }
+        // The request-scoped persistence context would otherwise keep every imported row
+        entityManager.clear();
+        return rows.size();
+    }
+
+    private List<User> withoutExistingEmails(List<User> users) {
+        Map<String, User> byEmail = new LinkedHashMap<>();
+        for (User user : users) {
+            byEmail.putIfAbsent(user.getEmail().toLowerCase(Locale.ROOT), user);
+        }
+        List<String> emails = byEmail.values().stream().map(User::getEmail).collect(Collectors.toList());
+        Set<String> existing = new HashSet<>();
+        for (String email : userService.findExistingEmails(emails)) {
+            existing.add(email.toLowerCase(Locale.ROOT));
+        }
+        List<User> fresh = new ArrayList<>(byEmail.size());
+        for (Map.Entry<String, User> entry : byEmail.entrySet()) {
+            if (!existing.contains(entry.getKey())) {
+                fresh.add(entry.getValue());
+            }
+        }
+        return fresh;
+    }
+
+    private static String column(Map<String, String> record, String name) {
+        String value = record.get(name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static void reportError(List<String> errors, long lineNumber, String message) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("line " + lineNumber + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.uams.service;
+
+/**
+ * Thrown when a product does not have enough stock left for an order; nothing is
+ * reserved and the order is not placed.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    private final Long productId;
+
+    public InsufficientStockException(Long productId, int quantity) {
+        super("Product " + productId + " does not have " + quantity + " in stock");
+        this.productId = productId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+}
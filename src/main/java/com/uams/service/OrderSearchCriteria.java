@@ -0,0 +1,88 @@
+package com.uams.service;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters for the order search; bound from the {@code /orders/search} query
+ * parameters. Missing or blank values do not restrict the result.
+ */
+public class OrderSearchCriteria {
+
+    private String status;
+    private String email;
+    private Long userId;
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm")
+    private LocalDateTime from;
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm")
+    private LocalDateTime to;
+
+    private BigDecimal minTotal;
+    private BigDecimal maxTotal;
+
+    public boolean isEmpty() {
+        return !StringUtils.hasText(status) && !StringUtils.hasText(email) && userId == null
+                && from == null && to == null && minTotal == null && maxTotal == null;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public BigDecimal getMinTotal() {
+        return minTotal;
+    }
+
+    public void setMinTotal(BigDecimal minTotal) {
+        this.minTotal = minTotal;
+    }
+
+    public BigDecimal getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(BigDecimal maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+}
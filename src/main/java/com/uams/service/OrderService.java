@@ -1,11 +1,50 @@
 package com.uams.service;
 
+import com.uams.dto.CustomerRevenue;
+import com.uams.dto.DailyRevenue;
+import com.uams.dto.OrderListItem;
+import com.uams.dto.OrderRevenue;
+import com.uams.dto.StatusRevenue;
 import com.uams.model.Order;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface OrderService {
     List<Order> getAllOrders();
+    KeysetPage<Order> getOrdersPage(KeysetPageRequest pageRequest);
+    KeysetPage<Order> searchOrders(OrderSearchCriteria criteria, KeysetPageRequest pageRequest);
+    KeysetPage<OrderListItem> searchOrderList(OrderSearchCriteria criteria, KeysetPageRequest pageRequest);
     Order getOrderById(Long id);
     Order saveOrder(Order order);
+    Order placeOrder(Order order);
+    List<Order> saveAllOrders(List<Order> orders);
+    Set<String> findExistingIngestionKeys(Collection<String> ingestionKeys);
     void deleteOrder(Long id);
+
+    /**
+     * Deletes the orders, or soft-deletes them in soft deletion mode, with set-based
+     * statements.
+     *
+     * @return the number of orders deleted
+     */
+    int deleteOrders(Collection<Long> ids);
+
+    /**
+     * Deletes every order matching the criteria, a chunk of ids per transaction, so a
+     * large match never holds its locks for long.
+     *
+     * @return the number of orders deleted
+     * @throws IllegalArgumentException if the criteria are empty, which would match every order
+     */
+    int deleteOrders(OrderSearchCriteria criteria);
+
+    // Revenue of the orders placed from the start of the first day to the end of the last
+    OrderRevenue getRevenue(LocalDate firstDay, LocalDate lastDay);
+    List<DailyRevenue> getDailyRevenue(LocalDate firstDay, LocalDate lastDay);
+    List<StatusRevenue> getRevenueByStatus(LocalDate firstDay, LocalDate lastDay);
+    List<CustomerRevenue> getTopCustomers(LocalDate firstDay, LocalDate lastDay, int limit);
 }
\ No newline at end of file
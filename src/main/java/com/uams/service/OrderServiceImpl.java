@@ -1,39 +1,257 @@
 package com.uams.service;
 
+import com.uams.dto.CustomerRevenue;
+import com.uams.dto.DailyRevenue;
+import com.uams.dto.OrderListItem;
+import com.uams.dto.OrderRevenue;
+import com.uams.dto.StatusRevenue;
 import com.uams.model.Order;
+import com.uams.model.OrderLine;
+import com.uams.model.Product;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
+import com.uams.repository.AddressRepository;
 import com.uams.repository.OrderRepository;
+import com.uams.repository.ProductRepository;
+import com.uams.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.uams.repository.OrderSpecifications.belongsToUser;
+import static com.uams.repository.OrderSpecifications.hasEmail;
+import static com.uams.repository.OrderSpecifications.hasStatus;
+import static com.uams.repository.OrderSpecifications.placedBetween;
+import static com.uams.repository.OrderSpecifications.totalBetween;
 
 @Service
 public class OrderServiceImpl implements OrderService {
 
+    // orderDate is served, below a status or email filter, by idx_orders_status_order_date and
+    // idx_orders_email_order_date, which end in the order_id tie-breaker
+    private static final Set<String> SORT_KEYS = Set.of("email", "orderDate");
+    private static final int MAX_TOP_CUSTOMERS = 100;
+    private static final int DELETE_CHUNK_SIZE = BulkDeletionServiceImpl.CHUNK_SIZE;
+
     private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final AddressRepository addressRepository;
+    private final StockReservationService stockReservationService;
+    private final BulkDeletionService deletionService;
 
     @Autowired
-    public OrderServiceImpl(OrderRepository orderRepository) {
+    public OrderServiceImpl(OrderRepository orderRepository, ProductRepository productRepository,
+                            UserRepository userRepository, AddressRepository addressRepository,
+                            StockReservationService stockReservationService, BulkDeletionService deletionService) {
         this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.addressRepository = addressRepository;
+        this.stockReservationService = stockReservationService;
+        this.deletionService = deletionService;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Order> getOrdersPage(KeysetPageRequest pageRequest) {
+        return orderRepository.findPage(pageRequest.restrictSortKeys(SORT_KEYS));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Order> searchOrders(OrderSearchCriteria criteria, KeysetPageRequest pageRequest) {
+        return orderRepository.findPage(filter(criteria), pageRequest.restrictSortKeys(SORT_KEYS));
+    }
+
+    /**
+     * The list and search pages; an empty criteria lists every order.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<OrderListItem> searchOrderList(OrderSearchCriteria criteria, KeysetPageRequest pageRequest) {
+        return orderRepository.findPage(filter(criteria), pageRequest.restrictSortKeys(SORT_KEYS), OrderListItem.class);
+    }
+
+    private static Specification<Order> filter(OrderSearchCriteria criteria) {
+        return Specification.where(hasStatus(criteria.getStatus()))
+                .and(hasEmail(criteria.getEmail()))
+                .and(belongsToUser(criteria.getUserId()))
+                .and(placedBetween(criteria.getFrom(), criteria.getTo()))
+                .and(totalBetween(criteria.getMinTotal(), criteria.getMaxTotal()));
+    }
+
+    // The edit form's read; a read-only transaction would be routed to a replica
+    @Override
+    @Transactional
     public Order getOrderById(Long id) {
         return orderRepository.findById(id).orElse(null);
     }
 
+    /**
+     * Saves a new order as it is. An edit copies only the properties on the order form onto
+     * the stored order, so its customer, address and lines, and the stock those lines
+     * reserved, are kept; the total of an order with lines stays their sum.
+     *
+     * @throws IllegalArgumentException if the edited order does not exist
+     */
     @Override
+    @Transactional
     public Order saveOrder(Order order) {
-        return orderRepository.save(order);
+        if (order.getOrderId() == null) {
+            return orderRepository.save(order);
+        }
+        Order stored = orderRepository.findById(order.getOrderId())
+                .orElseThrow(() -> new IllegalArgumentException("Order " + order.getOrderId() + " not found"));
+        stored.setOrderNumber(order.getOrderNumber());
+        stored.setEmail(order.getEmail());
+        stored.setOrderDate(order.getOrderDate());
+        stored.setStatus(order.getStatus());
+        if (stored.getLines().isEmpty()) {
+            stored.setTotalAmount(order.getTotalAmount());
+        }
+        return stored;
+    }
+
+    /**
+     * Prices the order's lines at the products' current prices, reserves their stock and
+     * saves the order with their sum as its total, all in one transaction.
+     *
+     * @throws InsufficientStockException if a product is short; nothing is saved
+     */
+    @Override
+    @Transactional
+    public Order placeOrder(Order order) {
+        if (order.getLines().isEmpty()) {
+            throw new IllegalArgumentException("An order needs at least one line");
+        }
+        Map<Long, Integer> quantities = new HashMap<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderLine line : order.getLines()) {
+            Long productId = line.getProduct().getProductId();
+            // Usually served by the product cache
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new IllegalArgumentException("Product " + productId + " not found"));
+            line.setProduct(product);
+            line.setUnitPrice(product.getPrice());
+            total = total.add(line.getLineTotal());
+            quantities.merge(productId, line.getQuantity(), Integer::sum);
+        }
+        order.setTotalAmount(total);
+        resolveReferences(order);
+        // Saving allocates the ids, which may take a connection of its own, before any stock
+        // row is locked; the rows stay locked only while the inserts are flushed and committed.
+        Order saved = orderRepository.save(order);
+        stockReservationService.reserve(quantities);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public List<Order> saveAllOrders(List<Order> orders) {
+        orders.forEach(this::resolveReferences);
+        return orderRepository.saveAll(orders);
+    }
+
+    /**
+     * The customer and address of a new order only need an id: each is replaced with a
+     * reference, which is not loaded. An id-only entity would look transient to Hibernate,
+     * as its version is null.
+     */
+    private void resolveReferences(Order order) {
+        if (order.getUser() != null) {
+            order.setUser(userRepository.getReferenceById(order.getUser().getUserId()));
+        }
+        if (order.getAddress() != null) {
+            order.setAddress(addressRepository.getReferenceById(order.getAddress().getAddressId()));
+        }
+    }
+
+    // Read from the primary: a lagging replica would miss orders just written
+    @Override
+    @Transactional
+    public Set<String> findExistingIngestionKeys(Collection<String> ingestionKeys) {
+        return ingestionKeys.isEmpty() ? Set.of() : orderRepository.findExistingIngestionKeys(ingestionKeys);
     }
 
     @Override
     public void deleteOrder(Long id) {
-        orderRepository.deleteById(id);
+        deleteOrders(List.of(id));
+    }
+
+    @Override
+    public int deleteOrders(Collection<Long> ids) {
+        return deletionService.delete(DeletableTable.ORDERS, ids);
+    }
+
+    // Not transactional: each chunk commits on its own
+    @Override
+    public int deleteOrders(OrderSearchCriteria criteria) {
+        if (criteria.isEmpty()) {
+            throw new IllegalArgumentException("Deleting orders by filter needs at least one criterion");
+        }
+        Specification<Order> filter = filter(criteria);
+        int deleted = 0;
+        Long after = null;
+        List<Long> ids;
+        do {
+            ids = orderRepository.findIds(filter, after, DELETE_CHUNK_SIZE);
+            if (!ids.isEmpty()) {
+                deleted += deletionService.delete(DeletableTable.ORDERS, ids);
+                after = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == DELETE_CHUNK_SIZE);
+        return deleted;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderRevenue getRevenue(LocalDate firstDay, LocalDate lastDay) {
+        return orderRepository.sumRevenue(startOf(firstDay), endOf(lastDay));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DailyRevenue> getDailyRevenue(LocalDate firstDay, LocalDate lastDay) {
+        return orderRepository.sumRevenueByDay(startOf(firstDay), endOf(lastDay));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StatusRevenue> getRevenueByStatus(LocalDate firstDay, LocalDate lastDay) {
+        return orderRepository.sumRevenueByStatus(startOf(firstDay), endOf(lastDay));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CustomerRevenue> getTopCustomers(LocalDate firstDay, LocalDate lastDay, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_TOP_CUSTOMERS));
+        return orderRepository.sumRevenueByCustomer(startOf(firstDay), endOf(lastDay), PageRequest.of(0, size));
+    }
+
+    private static LocalDateTime startOf(LocalDate day) {
+        return day.atStartOfDay();
+    }
+
+    // Exclusive, so orders in the last instant of the day are counted
+    private static LocalDateTime endOf(LocalDate day) {
+        return day.plusDays(1).atStartOfDay();
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,39 @@
 package com.uams.service;
 
+import com.uams.dto.ProductPatch;
 import com.uams.model.Product;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ProductService {
     List<Product> getAllProducts();
+    KeysetPage<Product> getProductsPage(KeysetPageRequest pageRequest);
     Optional<Product> getProductById(Long id);
     Product saveProduct(Product product);
+
+    /**
+     * Applies the patch's non-null properties, provided the product is still at the
+     * patch's version. Only the changed columns are written.
+     *
+     * @return false if there is no such product
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the
+     *         product has been changed since that version
+     */
+    boolean updateProduct(Long id, ProductPatch patch);
+
+    List<Product> saveAllProducts(List<Product> products);
     void deleteProduct(Long id);
+
+    /**
+     * Deletes the products in one statement. Products are never soft-deleted: order lines
+     * keep referring to them.
+     *
+     * @return the number of products deleted
+     * @throws org.springframework.dao.DataIntegrityViolationException if any of them is
+     *         on an order
+     */
+    int deleteProducts(Collection<Long> ids);
 }
\ No newline at end of file
@@ -1,16 +1,25 @@
 package com.uams.service;
 
+import com.uams.dto.ProductPatch;
 import com.uams.model.Product;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
 import com.uams.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.Optional;
 
 @Service
 public class ProductServiceImpl implements ProductService {
 
+    private static final Set<String> SORT_KEYS = Set.of("name", "price");
+
     private final ProductRepository productRepository;
 
     @Autowired
@@ -18,12 +27,24 @@ public class ProductServiceImpl implements ProductService {
         this.productRepository = productRepository;
     }
 
+    // Catalogue reads stay on the primary: they are answered from the query cache, and a
+    // miss served by a lagging replica would cache stale rows until the next product write.
+    // Without a transaction of their own they would inherit the repository's read-only one,
+    // which is routed to a replica.
     @Override
+    @Transactional
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
     @Override
+    @Transactional
+    public KeysetPage<Product> getProductsPage(KeysetPageRequest pageRequest) {
+        return productRepository.findPage(pageRequest.restrictSortKeys(SORT_KEYS));
+    }
+
+    @Override
+    @Transactional
     public Optional<Product> getProductById(Long id) {
         return productRepository.findById(id);
     }
@@ -33,8 +54,37 @@ public class ProductServiceImpl implements ProductService {
         return productRepository.save(product);
     }
 
+    // Not a bulk update: that would evict the whole product region. The product is usually
+    // read from the second-level cache, so the dynamic UPDATE at commit is the only statement.
+    @Override
+    @Transactional
+    public boolean updateProduct(Long id, ProductPatch patch) {
+        Optional<Product> found = productRepository.findById(id);
+        if (found.isEmpty()) {
+            return false;
+        }
+        Product product = found.get();
+        if (!product.getVersion().equals(patch.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Product.class, id);
+        }
+        patch.applyTo(product);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public List<Product> saveAllProducts(List<Product> products) {
+        return productRepository.saveAll(products);
+    }
+
     @Override
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
     }
+
+    @Override
+    @Transactional
+    public int deleteProducts(Collection<Long> ids) {
+        return ids.isEmpty() ? 0 : productRepository.deleteByIdIn(ids);
+    }
 }
\ No newline at end of file
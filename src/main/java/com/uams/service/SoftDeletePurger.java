@@ -0,0 +1,106 @@
+package com.uams.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hard-deletes soft-deleted rows in the background, {@code batchSize} rows per
+ * transaction with a pause between transactions, so the purge never holds many locks
+ * or competes with the request traffic for long. Purged rows are counted in
+ * {@code uams.deletion.purged}, tagged with the table. Purged users' emails are dropped
+ * from the email cache, where they were still held as taken.
+ */
+public class SoftDeletePurger implements AutoCloseable {
+
+    static final String PURGED_METRIC = "uams.deletion.purged";
+
+    private static final Logger log = LoggerFactory.getLogger(SoftDeletePurger.class);
+
+    private final BulkDeletionService deletionService;
+    private final UserService userService;
+    private final MeterRegistry registry;
+    private final int batchSize;
+    private final Duration batchDelay;
+    private ScheduledExecutorService scheduler;
+
+    public SoftDeletePurger(BulkDeletionService deletionService, UserService userService, MeterRegistry registry,
+                            int batchSize, Duration batchDelay) {
+        this.deletionService = deletionService;
+        this.userService = userService;
+        this.registry = registry;
+        this.batchSize = batchSize;
+        this.batchDelay = batchDelay;
+    }
+
+    public void start(Duration interval) {
+        if (interval.isZero() || interval.isNegative()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "soft-delete-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::run, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void run() {
+        try {
+            purge();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // the next run picks up where this one stopped
+            log.warn("Purging soft-deleted rows failed", e);
+        }
+    }
+
+    /**
+     * Purges every soft-deleted row, table by table.
+     *
+     * @return the number of rows purged
+     */
+    public synchronized int purge() throws InterruptedException {
+        int total = 0;
+        for (DeletableTable table : DeletableTable.values()) {
+            int purged;
+            do {
+                List<Long> ids = deletionService.purge(table, batchSize);
+                purged = ids.size();
+                if (table == DeletableTable.USERS) {
+                    userService.forgetPurgedUsers(ids);
+                }
+                if (purged > 0) {
+                    Counter.builder(PURGED_METRIC)
+                            .description("Soft-deleted rows hard-deleted by the purge")
+                            .tag("table", table.name().toLowerCase())
+                            .register(registry)
+                            .increment(purged);
+                    total += purged;
+                }
+                if (purged == batchSize && !batchDelay.isZero()) {
+                    Thread.sleep(batchDelay.toMillis());
+                }
+            } while (purged == batchSize);
+        }
+        if (total > 0) {
+            log.info("Purged {} soft-deleted rows", total);
+        }
+        return total;
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
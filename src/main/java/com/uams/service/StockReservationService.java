@@ -0,0 +1,13 @@
+package com.uams.service;
+
+import java.util.Map;
+
+public interface StockReservationService {
+
+    /**
+     * Takes the quantities, keyed by product id, out of stock in the current transaction:
+     * either every product has enough stock, or an {@link InsufficientStockException}
+     * rolls the transaction back.
+     */
+    void reserve(Map<Long, Integer> quantities);
+}
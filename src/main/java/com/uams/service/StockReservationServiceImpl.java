@@ -0,0 +1,70 @@
+package com.uams.service;
+
+import com.uams.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Reserves stock with one conditional update per product. The row lock it takes
+ * serialises checkouts of the same product until they commit, and the condition
+ * keeps stock from going negative, so concurrent checkouts never oversell and
+ * checkouts of different products do not wait for each other.
+ */
+@Service
+public class StockReservationServiceImpl implements StockReservationService {
+
+    // Also bumps the version, so an edit of the product read before the checkout fails
+    // instead of writing back the old stock level
+    private static final String RESERVE_SQL =
+            "update products set stock_quantity = stock_quantity - ?, version = version + 1"
+            + " where product_id = ? and stock_quantity >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    public StockReservationServiceImpl(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    @Transactional
+    public void reserve(Map<Long, Integer> quantities) {
+        // In product id order, so checkouts sharing several products lock them in the same order
+        Map<Long, Integer> ordered = new TreeMap<>(quantities);
+        for (Map.Entry<Long, Integer> entry : ordered.entrySet()) {
+            int quantity = entry.getValue();
+            if (quantity <= 0) {
+                throw new IllegalArgumentException("Quantity of product " + entry.getKey() + " must be positive");
+            }
+            if (jdbcTemplate.update(RESERVE_SQL, quantity, entry.getKey(), quantity) == 0) {
+                throw new InsufficientStockException(entry.getKey(), quantity);
+            }
+        }
+        evictAfterCommit(ordered.keySet());
+    }
+
+    /**
+     * The update bypasses Hibernate, which would otherwise invalidate the whole product
+     * region and every cached catalogue query; only the reserved products are evicted.
+     * Cached listings hold ids and stay valid.
+     */
+    private void evictAfterCommit(Set<Long> productIds) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                productIds.forEach(productId -> entityManagerFactory.getCache().evict(Product.class, productId));
+            }
+        });
+    }
+}
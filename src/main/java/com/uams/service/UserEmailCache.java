@@ -0,0 +1,92 @@
+package com.uams.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bounded email to user id map in front of the users table. Emails are trimmed and
+ * lower-cased before lookup, and emails with no user are cached as well so repeated
+ * duplicate checks for a new address stay in memory. Caffeine evicts with W-TinyLFU
+ * once {@link #MAXIMUM_SIZE} entries are held.
+ *
+ * <p>Entries are corrected by {@link UserServiceImpl} when it saves or deletes a user.
+ * Writes that bypass the service are only picked up when an entry expires, which is
+ * why absent emails expire much sooner than known ones; the unique constraint on
+ * {@code users.email} remains the final guard against duplicates.
+ */
+class UserEmailCache {
+
+    static final long MAXIMUM_SIZE = 10_000;
+    static final Duration PRESENT_TTL = Duration.ofMinutes(30);
+    static final Duration ABSENT_TTL = Duration.ofMinutes(1);
+
+    private final LoadingCache<String, Optional<Long>> userIds;
+
+    UserEmailCache(Function<String, Optional<Long>> loader) {
+        this.userIds = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .expireAfter(new PresenceExpiry())
+                .build(loader::apply);
+    }
+
+    static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    Optional<Long> getUserId(String email) {
+        return userIds.get(normalize(email));
+    }
+
+    void put(String email, Long userId) {
+        userIds.put(normalize(email), Optional.of(userId));
+    }
+
+    void invalidate(String email) {
+        userIds.invalidate(normalize(email));
+    }
+
+    void invalidateAll(Collection<String> emails) {
+        emails.forEach(this::invalidate);
+    }
+
+    void invalidateUser(Long userId) {
+        invalidateUsers(List.of(userId));
+    }
+
+    /**
+     * Drops every email mapped to the users. A linear scan, but only needed when users
+     * are updated, deleted or purged, and the cache is bounded.
+     */
+    void invalidateUsers(Collection<Long> userIds) {
+        Set<Long> ids = new HashSet<>(userIds);
+        this.userIds.asMap().values().removeIf(id -> id.isPresent() && ids.contains(id.get()));
+    }
+
+    private static class PresenceExpiry implements Expiry<String, Optional<Long>> {
+
+        @Override
+        public long expireAfterCreate(String email, Optional<Long> userId, long currentTime) {
+            return (userId.isPresent() ? PRESENT_TTL : ABSENT_TTL).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String email, Optional<Long> userId, long currentTime, long currentDuration) {
+            return expireAfterCreate(email, userId, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String email, Optional<Long> userId, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,15 +1,78 @@
 package com.uams.service;
 
+import com.uams.dto.UserListItem;
+import com.uams.dto.UserPatch;
 import com.uams.model.User;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public interface UserService {
     List<User> getAllUsers();
+    KeysetPage<User> getUsersPage(KeysetPageRequest pageRequest);
+    KeysetPage<UserListItem> getUserListPage(KeysetPageRequest pageRequest);
     Optional<User> getUserById(Long id);
+
+    /**
+     * The user with its addresses loaded, for use outside a transaction.
+     */
+    Optional<User> getUserWithAddresses(Long id);
     User saveUser(User user);
+
+    /**
+     * Writes the patch's non-null properties in one {@code UPDATE}, provided the user is
+     * still at the patch's version.
+     *
+     * @return false if there is no such user
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the user
+     *         has been changed since that version
+     */
+    boolean updateUser(Long id, UserPatch patch);
+
+    List<User> saveAllUsers(List<User> users);
     void deleteUser(Long id);
+
+    /**
+     * Deletes the users, or soft-deletes them in soft deletion mode, with set-based
+     * statements. Their orders are kept, without the link to the user.
+     *
+     * @return the number of users deleted
+     */
+    int deleteUsers(Collection<Long> ids);
+
+    /**
+     * Forgets the emails of users the purge has hard-deleted: a soft-deleted user's email
+     * stays cached as taken until then.
+     */
+    void forgetPurgedUsers(Collection<Long> ids);
     boolean existsByEmail(String email);
     Optional<User> findByEmail(String email);
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * Links the address to the user with one insert into {@code user_address}.
+     *
+     * @return false if it was already linked, or the user or address does not exist
+     */
+    boolean linkAddress(Long userId, Long addressId);
+
+    /**
+     * Removes the link with one delete from {@code user_address}.
+     *
+     * @return false if there was no such link
+     */
+    boolean unlinkAddress(Long userId, Long addressId);
+
+    /**
+     * Links each user to the given addresses, in one transaction of batched inserts.
+     * Existing links and unknown ids are skipped.
+     *
+     * @return the number of links added
+     */
+    int linkAddresses(Map<Long, ? extends Collection<Long>> addressIdsByUserId);
 }
\ No newline at end of file
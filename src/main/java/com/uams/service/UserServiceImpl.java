@@ -1,50 +1,225 @@
 package com.uams.service;
 
+import com.uams.dto.UserListItem;
+import com.uams.dto.UserPatch;
 import com.uams.model.User;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
 import com.uams.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class UserServiceImpl implements UserService {
 
+    private static final Set<String> SORT_KEYS = Set.of("email", "firstName", "lastName");
+
+    // user_address is written directly, without loading either entity or User.addresses (which
+    // is not cached, so its next load sees the change). Inserts nothing, rather than failing,
+    // when the link exists or either side does not, or is soft-deleted.
+    private static final String LINK_ADDRESS_SQL = "insert into user_address (user_id, address_id)"
+            + " select u.user_id, a.address_id from users u join addresses a on a.address_id = ?"
+            + " where u.user_id = ? and u.deleted_at is null and a.deleted_at is null and not exists"
+            + " (select 1 from user_address ua where ua.user_id = u.user_id and ua.address_id = a.address_id)";
+    private static final String UNLINK_ADDRESS_SQL = "delete from user_address where user_id = ? and address_id = ?";
+    private static final int LINK_BATCH_SIZE = 500;
+
     private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final BulkDeletionService deletionService;
+    private final UserEmailCache emailCache;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, JdbcTemplate jdbcTemplate,
+                           BulkDeletionService deletionService) {
         this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.deletionService = deletionService;
+        this.emailCache = new UserEmailCache(userRepository::findIdByEmail);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<User> getUsersPage(KeysetPageRequest pageRequest) {
+        return userRepository.findPage(pageRequest.restrictSortKeys(SORT_KEYS));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<UserListItem> getUserListPage(KeysetPageRequest pageRequest) {
+        return userRepository.findPage(null, pageRequest.restrictSortKeys(SORT_KEYS), UserListItem.class);
+    }
+
+    // Read-write, like the edit form it feeds, so it is served by the primary rather than a lagging replica
+    @Override
+    @Transactional
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
 
+    // Read-write too: the addresses page is shown right after a link or unlink
+    @Override
+    @Transactional
+    public Optional<User> getUserWithAddresses(Long id) {
+        return userRepository.findWithAddressesByUserId(id);
+    }
+
     @Override
     public User saveUser(User user) {
-        return userRepository.save(user);
+        boolean update = user.getUserId() != null;
+        User saved = userRepository.save(user);
+        if (update) {
+            // the email may have changed; forget whatever the user was cached under
+            emailCache.invalidateUser(saved.getUserId());
+        }
+        emailCache.put(saved.getEmail(), saved.getUserId());
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public boolean updateUser(Long id, UserPatch patch) {
+        if (!userRepository.updateVersioned(id, patch.getVersion(), patch.changes())) {
+            return false;
+        }
+        if (patch.getEmail() != null) {
+            afterCommit(() -> {
+                emailCache.invalidateUser(id);
+                emailCache.put(patch.getEmail(), id);
+            });
+        }
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public List<User> saveAllUsers(List<User> users) {
+        List<User> saved = userRepository.saveAll(users);
+        // drop cached "no such user" answers without filling the cache with the whole import
+        List<String> emails = saved.stream().map(User::getEmail).collect(Collectors.toList());
+        afterCommit(() -> emailCache.invalidateAll(emails));
+        return saved;
     }
 
     @Override
     public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+        deleteUsers(List.of(id));
     }
 
     @Override
+    public int deleteUsers(Collection<Long> ids) {
+        int deleted = deletionService.delete(DeletableTable.USERS, ids);
+        emailCache.invalidateUsers(ids);
+        return deleted;
+    }
+
+    @Override
+    public void forgetPurgedUsers(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            emailCache.invalidateUsers(ids);
+        }
+    }
+
+    // Guards registration, so a miss is loaded from the primary
+    @Override
+    @Transactional
     public boolean existsByEmail(String email) {
-        return userRepository.existsByEmail(email);
+        return emailCache.getUserId(email).isPresent();
     }
 
+    // Read-write as well: a miss fills the cache existsByEmail relies on
     @Override
+    @Transactional
     public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmail(email);
+        Optional<Long> userId = emailCache.getUserId(email);
+        if (userId.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<User> user = userRepository.findById(userId.get())
+                .filter(found -> UserEmailCache.normalize(found.getEmail()).equals(UserEmailCache.normalize(email)));
+        if (user.isEmpty()) {
+            // changed behind the cache's back; reload on the next lookup
+            emailCache.invalidate(email);
+            return userRepository.findByEmail(email);
+        }
+        return user;
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return emails.isEmpty() ? Set.of() : userRepository.findExistingEmails(emails);
+    }
+
+    @Override
+    @Transactional
+    public boolean linkAddress(Long userId, Long addressId) {
+        try {
+            return jdbcTemplate.update(LINK_ADDRESS_SQL, addressId, userId) == 1;
+        } catch (DuplicateKeyException e) {
+            // linked concurrently
+            return false;
+        }
+    }
+
+    @Override
+    @Transactional
+    public boolean unlinkAddress(Long userId, Long addressId) {
+        return jdbcTemplate.update(UNLINK_ADDRESS_SQL, userId, addressId) == 1;
+    }
+
+    @Override
+    @Transactional
+    public int linkAddresses(Map<Long, ? extends Collection<Long>> addressIdsByUserId) {
+        List<Object[]> links = new ArrayList<>();
+        addressIdsByUserId.forEach((userId, addressIds) ->
+                addressIds.forEach(addressId -> links.add(new Object[]{addressId, userId})));
+        int linked = 0;
+        for (int[] batch : jdbcTemplate.batchUpdate(LINK_ADDRESS_SQL, links, LINK_BATCH_SIZE,
+                (statement, link) -> {
+                    statement.setLong(1, (Long) link[0]);
+                    statement.setLong(2, (Long) link[1]);
+                })) {
+            for (int count : batch) {
+                linked += Math.max(count, 0);
+            }
+        }
+        return linked;
+    }
+
+    /**
+     * Updates the email cache once the current transaction commits. Before that, a
+     * concurrent miss could load the old row back in, and a rollback would leave the cache
+     * ahead of the table.
+     */
+    private static void afterCommit(Runnable cacheUpdate) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cacheUpdate.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cacheUpdate.run();
+            }
+        });
     }
-}
\ No newline at end of file
+}
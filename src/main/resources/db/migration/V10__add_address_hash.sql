@@ -0,0 +1,8 @@
+-- Each address is stored once: address_hash is the SHA-256 of its normalised building name,
+-- street, city, state and pincode (computed by the application, see AddressNormalizer), and
+-- creating an address returns the row that already has its hash.
+-- Existing rows are hashed, and their duplicates merged, by the address deduplication job;
+-- until then their hash is null, which the unique index allows any number of times.
+
+alter table addresses add column address_hash varchar(64);
+create unique index uk_addresses_address_hash on addresses (address_hash);
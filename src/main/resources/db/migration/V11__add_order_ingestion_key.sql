@@ -0,0 +1,7 @@
+-- Orders written by the ingestion queue carry the key it assigned on accepting them, so a
+-- batch that is retried, or replayed from the write-ahead log, skips the orders already
+-- written. Order numbers can be typed in and are not unique, so they cannot serve.
+-- Orders saved directly leave it null, which the unique index allows any number of times.
+
+alter table orders add column ingestion_key varchar(36);
+create unique index uk_orders_ingestion_key on orders (ingestion_key);
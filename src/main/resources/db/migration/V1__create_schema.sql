@@ -0,0 +1,62 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update). Databases that already
+-- have these tables are baselined at version 1 (spring.flyway.baseline-on-migrate).
+
+create table users (
+    user_id       bigint       not null,
+    email         varchar(255) not null,
+    first_name    varchar(255) not null,
+    last_name     varchar(255) not null,
+    mobile_number varchar(255),
+    password      varchar(255) not null,
+    primary key (user_id),
+    constraint uk_users_email unique (email)
+) engine=InnoDB;
+
+create table addresses (
+    address_id    bigint       not null,
+    building_name varchar(255),
+    street        varchar(255) not null,
+    city          varchar(255) not null,
+    state         varchar(255) not null,
+    pincode       varchar(255) not null,
+    primary key (address_id)
+) engine=InnoDB;
+
+create table user_address (
+    user_id    bigint not null,
+    address_id bigint not null,
+    primary key (user_id, address_id),
+    constraint fk_user_address_user foreign key (user_id) references users (user_id),
+    constraint fk_user_address_address foreign key (address_id) references addresses (address_id)
+) engine=InnoDB;
+
+create table orders (
+    order_id     bigint       not null,
+    user_id      bigint,
+    address_id   bigint,
+    email        varchar(255) not null,
+    order_number varchar(255),
+    order_date   datetime(6),
+    status       varchar(255),
+    total_amount double precision,
+    primary key (order_id),
+    constraint fk_orders_user foreign key (user_id) references users (user_id),
+    constraint fk_orders_address foreign key (address_id) references addresses (address_id)
+) engine=InnoDB;
+
+create table products (
+    product_id     bigint         not null,
+    name           varchar(255)   not null,
+    description    varchar(1000),
+    price          decimal(10, 2) not null,
+    stock_quantity integer,
+    category       varchar(255),
+    image_url      varchar(255),
+    primary key (product_id)
+) engine=InnoDB;
+
+create table id_generator (
+    entity_name varchar(255) not null,
+    next_val    bigint,
+    primary key (entity_name)
+) engine=InnoDB;
@@ -0,0 +1,14 @@
+-- Seeds the pooled id generator from existing rows, so databases created while the
+-- entities used IDENTITY keys keep issuing ids above the current maximum.
+-- A no-op for entities that already have a generator row.
+-- Databases baselined at version 1 skip V1, so the generator table is created here too.
+create table if not exists id_generator (
+    entity_name varchar(255) not null,
+    next_val    bigint,
+    primary key (entity_name)
+) engine=InnoDB;
+
+INSERT IGNORE INTO id_generator (entity_name, next_val) SELECT 'users', COALESCE(MAX(user_id), 0) + 1 FROM users;
+INSERT IGNORE INTO id_generator (entity_name, next_val) SELECT 'addresses', COALESCE(MAX(address_id), 0) + 1 FROM addresses;
+INSERT IGNORE INTO id_generator (entity_name, next_val) SELECT 'orders', COALESCE(MAX(order_id), 0) + 1 FROM orders;
+INSERT IGNORE INTO id_generator (entity_name, next_val) SELECT 'products', COALESCE(MAX(product_id), 0) + 1 FROM products;
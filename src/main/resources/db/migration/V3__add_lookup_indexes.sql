@@ -0,0 +1,13 @@
+-- Indexes for the lookup and filter columns; names match the @Table(indexes) declarations.
+-- InnoDB appends the primary key to every secondary index, so each one also serves
+-- the id tie-breaker of keyset pages sorted by its leading column.
+
+create index idx_orders_email_order_date on orders (email, order_date);
+create index idx_orders_order_number on orders (order_number);
+create index idx_orders_status_order_date on orders (status, order_date);
+create index idx_orders_order_date on orders (order_date);
+
+create index idx_addresses_pincode on addresses (pincode);
+create index idx_addresses_city on addresses (city);
+
+create index idx_products_category_name on products (category, name);
@@ -0,0 +1,2 @@
+-- Serves the amount range filter of the order search.
+create index idx_orders_total_amount on orders (total_amount);
@@ -0,0 +1,9 @@
+-- Written on the primary and read back from each replica to measure replication lag
+-- (see ReplicaLagMonitor). beat_at is epoch milliseconds of the writing application.
+create table replication_heartbeat (
+    id      int    not null,
+    beat_at bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+insert into replication_heartbeat (id, beat_at) values (1, 0);
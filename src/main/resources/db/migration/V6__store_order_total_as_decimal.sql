@@ -0,0 +1,5 @@
+-- Order totals are money: store them exactly, like products.price, instead of as a double.
+-- decimal(12,2) takes 6 bytes per row against 8 for a double; existing values are rounded
+-- to the cent, and idx_orders_total_amount is rebuilt with the column.
+
+alter table orders modify total_amount decimal(12, 2);
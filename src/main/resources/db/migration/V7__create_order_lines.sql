@@ -0,0 +1,14 @@
+-- The products and quantities of an order, with the unit price charged at checkout.
+-- InnoDB indexes both foreign keys, which serves loading an order's lines.
+
+create table order_lines (
+    order_line_id bigint         not null,
+    order_id      bigint         not null,
+    product_id    bigint         not null,
+    quantity      integer        not null,
+    unit_price    decimal(10, 2) not null,
+    primary key (order_line_id),
+    constraint fk_order_lines_order foreign key (order_id) references orders (order_id),
+    constraint fk_order_lines_product foreign key (product_id) references products (product_id),
+    constraint chk_order_lines_quantity check (quantity > 0)
+) engine=InnoDB;
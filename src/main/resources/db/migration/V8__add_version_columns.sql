@@ -0,0 +1,7 @@
+-- Optimistic locking for edits: every update checks and increments the row's version, so
+-- a form or PATCH based on an older read fails instead of overwriting a concurrent change.
+-- Existing rows start at version 0.
+
+alter table users add column version bigint not null default 0;
+alter table addresses add column version bigint not null default 0;
+alter table products add column version bigint not null default 0;
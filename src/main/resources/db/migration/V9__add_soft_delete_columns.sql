@@ -0,0 +1,11 @@
+-- Soft deletion (uams.deletion.mode=soft): deleting a user, address or order only stamps
+-- deleted_at, which hides the row from the application. SoftDeletePurger removes stamped rows,
+-- with their join rows and order lines, later and in small batches; the index serves its scan.
+
+alter table users add column deleted_at datetime(6);
+alter table addresses add column deleted_at datetime(6);
+alter table orders add column deleted_at datetime(6);
+
+create index idx_users_deleted_at on users (deleted_at);
+create index idx_addresses_deleted_at on addresses (deleted_at);
+create index idx_orders_deleted_at on orders (deleted_at);
@@ -1,13 +1,20 @@
 package com.uams.controller;
 
+import com.uams.dto.AddressListItem;
+import com.uams.dto.AddressPatch;
 import com.uams.model.Address;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
 import com.uams.service.AddressService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.ui.Model;
@@ -59,21 +66,25 @@ public class AddressControllerTest {
         address.setCity("New York");
         address.setState("NY");
         address.setPincode("10001");
+        address.setVersion(3L);
         address.setUsers(new HashSet<>());
     }
 
     @Test
     void listAddresses_ShouldAddAddressesToModelAndReturnListView() throws Exception {
         // Arrange
-        when(addressService.getAllAddresses()).thenReturn(Arrays.asList(address));
+        when(addressService.getAddressListPage(any(KeysetPageRequest.class)))
+                .thenReturn(new KeysetPage<>(Arrays.asList(new SpelAwareProxyProjectionFactory().createProjection(AddressListItem.class, address)),
+                        KeysetPageRequest.firstPage(), null));
 
         // Act & Assert
         mockMvc.perform(get("/addresses"))
                 .andExpect(status().isOk())
                 .andExpect(model().attributeExists("addresses"))
+                .andExpect(model().attributeExists("page"))
                 .andExpect(view().name("address/list"));
 
-        verify(addressService, times(1)).getAllAddresses();
+        verify(addressService, times(1)).getAddressListPage(any(KeysetPageRequest.class));
     }
 
     @Test
@@ -144,18 +155,37 @@ public class AddressControllerTest {
     void updateAddress_WithValidData_ShouldUpdateAddressAndRedirect() {
         // Arrange
         when(bindingResult.hasErrors()).thenReturn(false);
-        when(addressService.saveAddress(any(Address.class))).thenReturn(address);
+        when(addressService.updateAddress(eq(1L), any(AddressPatch.class))).thenReturn(true);
 
         // Act
         String viewName = addressController.updateAddress(1L, address, bindingResult, redirectAttributes);
 
         // Assert
         assertEquals("redirect:/addresses", viewName);
-        assertEquals(1L, address.getAddressId());
-        verify(addressService, times(1)).saveAddress(address);
+        ArgumentCaptor<AddressPatch> patch = ArgumentCaptor.forClass(AddressPatch.class);
+        verify(addressService, times(1)).updateAddress(eq(1L), patch.capture());
+        assertEquals(3L, patch.getValue().getVersion());
+        assertEquals("New York", patch.getValue().changes().get("city"));
+        verify(addressService, never()).saveAddress(any(Address.class));
         verify(redirectAttributes, times(1)).addFlashAttribute(eq("successMessage"), anyString());
     }
 
+    @Test
+    void updateAddress_WithStaleVersion_ShouldRedirectWithError() {
+        // Arrange
+        when(bindingResult.hasErrors()).thenReturn(false);
+        when(addressService.updateAddress(eq(1L), any(AddressPatch.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Address.class, 1L));
+
+        // Act
+        String viewName = addressController.updateAddress(1L, address, bindingResult, redirectAttributes);
+
+        // Assert
+        assertEquals("redirect:/addresses", viewName);
+        verify(redirectAttributes, times(1)).addFlashAttribute(eq("errorMessage"), anyString());
+        verify(redirectAttributes, never()).addFlashAttribute(eq("successMessage"), anyString());
+    }
+
     @Test
     void updateAddress_WithInvalidData_ShouldReturnFormWithErrors() {
         // Arrange
@@ -166,7 +196,7 @@ public class AddressControllerTest {
 
         // Assert
         assertEquals("address/form", viewName);
-        verify(addressService, never()).saveAddress(any(Address.class));
+        verify(addressService, never()).updateAddress(any(), any(AddressPatch.class));
     }
 
     @Test
@@ -1,31 +1,49 @@
 package com.uams.controller;
 
+import com.uams.dto.UserListItem;
 import com.uams.model.Address;
 import com.uams.model.User;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
 import com.uams.service.AddressService;
+import com.uams.service.ExportFormat;
+import com.uams.service.ExportService;
+import com.uams.service.ImportResult;
+import com.uams.service.ImportService;
 import com.uams.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -38,6 +56,12 @@ public class UserControllerTest {
     @Mock
     private AddressService addressService;
 
+    @Mock
+    private ImportService importService;
+
+    @Mock
+    private ExportService exportService;
+
     @Mock
     private Model model;
 
@@ -80,15 +104,39 @@ public class UserControllerTest {
     @Test
     void listUsers_ShouldAddUsersToModelAndReturnListView() throws Exception {
         // Arrange
-        when(userService.getAllUsers()).thenReturn(Arrays.asList(user));
+        when(userService.getUserListPage(any(KeysetPageRequest.class)))
+                .thenReturn(new KeysetPage<>(Arrays.asList(new SpelAwareProxyProjectionFactory().createProjection(UserListItem.class, user)),
+                        KeysetPageRequest.firstPage(), null));
 
         // Act & Assert
         mockMvc.perform(get("/users"))
                 .andExpect(status().isOk())
                 .andExpect(model().attributeExists("users"))
+                .andExpect(model().attributeExists("page"))
                 .andExpect(view().name("user/list"));
 
-        verify(userService, times(1)).getAllUsers();
+        verify(userService, times(1)).getUserListPage(any(KeysetPageRequest.class));
+    }
+
+    @Test
+    void listUsers_WithCursorAndSort_ShouldPassKeysetRequestToService() throws Exception {
+        // Arrange
+        when(userService.getUserListPage(any(KeysetPageRequest.class)))
+                .thenReturn(new KeysetPage<>(Arrays.asList(new SpelAwareProxyProjectionFactory().createProjection(UserListItem.class, user)),
+                        KeysetPageRequest.firstPage(), null));
+
+        // Act
+        mockMvc.perform(get("/users").param("after", "40").param("size", "10")
+                        .param("sort", "email").param("dir", "desc"))
+                .andExpect(status().isOk());
+
+        // Assert
+        ArgumentCaptor<KeysetPageRequest> captor = ArgumentCaptor.forClass(KeysetPageRequest.class);
+        verify(userService).getUserListPage(captor.capture());
+        assertEquals(40L, captor.getValue().getAfter());
+        assertEquals(10, captor.getValue().getSize());
+        assertEquals("email", captor.getValue().getSortKey());
+        assertTrue(captor.getValue().isDescending());
     }
 
     @Test
@@ -133,6 +181,68 @@ public class UserControllerTest {
         verify(userService, never()).saveUser(any(User.class));
     }
 
+    @Test
+    void importUsers_ShouldStreamFileToImportServiceAndRedirectWithSummary() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv",
+                "email,firstName,lastName,mobileNumber,password\n".getBytes());
+        when(importService.importUsers(any(InputStream.class)))
+                .thenReturn(new ImportResult("users", 0, 0, 0, Collections.emptyList(), 5));
+
+        // Act & Assert
+        mockMvc.perform(multipart("/users/import").file(file))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/users"))
+                .andExpect(flash().attributeExists("successMessage"))
+                .andExpect(flash().attributeCount(1));
+
+        verify(importService, times(1)).importUsers(any(InputStream.class));
+    }
+
+    @Test
+    void importUsers_WithUnreadableFile_ShouldRedirectWithError() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv", new byte[0]);
+        when(importService.importUsers(any(InputStream.class)))
+                .thenThrow(new IllegalArgumentException("CSV file is empty"));
+
+        // Act & Assert
+        mockMvc.perform(multipart("/users/import").file(file))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attribute("errorMessage", "Import failed: CSV file is empty"));
+    }
+
+    @Test
+    void exportUsers_ShouldStreamCsvAttachment() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("userId,email\n1,john@example.com\n".getBytes());
+            return null;
+        }).when(exportService).exportUsers(eq(ExportFormat.CSV), any(OutputStream.class));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/users/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"users.csv\""))
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string("userId,email\n1,john@example.com\n"));
+    }
+
+    @Test
+    void exportUsers_WithUnknownFormat_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/users/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(exportService);
+    }
+
     @Test
     void showEditForm_WithExistingId_ShouldAddUserToModelAndReturnFormView() throws Exception {
         // Arrange
@@ -176,33 +286,35 @@ public class UserControllerTest {
     @Test
     void viewUserAddresses_WithExistingId_ShouldAddUserAndAddressesToModelAndReturnAddressesView() throws Exception {
         // Arrange
-        when(userService.getUserById(1L)).thenReturn(Optional.of(user));
-        when(addressService.getAllAddresses()).thenReturn(Arrays.asList(address));
+        when(userService.getUserWithAddresses(1L)).thenReturn(Optional.of(user));
+        when(addressService.getAvailableAddressesForUser(1L, "New"))
+                .thenReturn(new SliceImpl<>(Arrays.asList(address)));
 
         // Act & Assert
-        mockMvc.perform(get("/users/1/addresses"))
+        mockMvc.perform(get("/users/1/addresses").param("q", "New"))
                 .andExpect(status().isOk())
                 .andExpect(model().attributeExists("user"))
                 .andExpect(model().attributeExists("addresses"))
-                .andExpect(model().attributeExists("allAddresses"))
+                .andExpect(model().attributeExists("availableAddresses"))
                 .andExpect(model().attributeExists("newAddress"))
                 .andExpect(view().name("user/addresses"));
 
-        verify(userService, times(1)).getUserById(1L);
-        verify(addressService, times(1)).getAllAddresses();
+        verify(userService, times(1)).getUserWithAddresses(1L);
+        verify(addressService, times(1)).getAvailableAddressesForUser(1L, "New");
+        verify(addressService, never()).getAllAddresses();
     }
 
     @Test
     void viewUserAddresses_WithNonExistingId_ShouldRedirectToUsersList() throws Exception {
         // Arrange
-        when(userService.getUserById(99L)).thenReturn(Optional.empty());
+        when(userService.getUserWithAddresses(99L)).thenReturn(Optional.empty());
 
         // Act & Assert
         mockMvc.perform(get("/users/99/addresses"))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/users"));
 
-        verify(userService, times(1)).getUserById(99L);
-        verify(addressService, never()).getAllAddresses();
+        verify(userService, times(1)).getUserWithAddresses(99L);
+        verify(addressService, never()).getAvailableAddressesForUser(anyLong(), any());
     }
 }
\ No newline at end of file
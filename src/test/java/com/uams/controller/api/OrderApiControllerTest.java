@@ -0,0 +1,133 @@
+package com.uams.controller.api;
+
+import com.uams.dto.StatusRevenue;
+import com.uams.model.Order;
+import com.uams.model.User;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
+import com.uams.service.InsufficientStockException;
+import com.uams.service.OrderSearchCriteria;
+import com.uams.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderApiControllerTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @InjectMocks
+    private OrderApiController orderApiController;
+
+    private MockMvc mockMvc;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(orderApiController).build();
+
+        User user = new User();
+        user.setUserId(3L);
+        order = new Order(user, null, "john@example.com", "ORD-1", LocalDateTime.of(2024, 1, 1, 12, 0), "NEW", new BigDecimal("25.00"));
+        order.setOrderId(7L);
+    }
+
+    @Test
+    void listOrders_ShouldPassFiltersToSearch() throws Exception {
+        when(orderService.searchOrders(any(OrderSearchCriteria.class), any(KeysetPageRequest.class)))
+                .thenReturn(new KeysetPage<>(List.of(order), KeysetPageRequest.firstPage(), null));
+
+        mockMvc.perform(get("/api/v1/orders").param("status", "NEW").param("minTotal", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].orderId").value(7))
+                .andExpect(jsonPath("$.items[0].userId").value(3))
+                .andExpect(jsonPath("$.items[0].addressId").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        ArgumentCaptor<OrderSearchCriteria> criteria = ArgumentCaptor.forClass(OrderSearchCriteria.class);
+        verify(orderService).searchOrders(criteria.capture(), any(KeysetPageRequest.class));
+        assertEquals("NEW", criteria.getValue().getStatus());
+        assertEquals(new BigDecimal("20"), criteria.getValue().getMinTotal());
+    }
+
+    @Test
+    void getOrder_WithFields_ShouldSerialiseOnlyThoseProperties() throws Exception {
+        when(orderService.getOrderById(7L)).thenReturn(order);
+
+        mockMvc.perform(get("/api/v1/orders/7").param("fields", "orderNumber, status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderNumber").value("ORD-1"))
+                .andExpect(jsonPath("$.status").value("NEW"))
+                .andExpect(jsonPath("$.orderId").doesNotExist());
+    }
+
+    @Test
+    void getRevenueByStatus_ShouldPassTheDayRange() throws Exception {
+        when(orderService.getRevenueByStatus(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)))
+                .thenReturn(List.of(new StatusRevenue("NEW", 2L, new BigDecimal("50.00"))));
+
+        mockMvc.perform(get("/api/v1/orders/revenue/by-status").param("from", "2024-01-01").param("to", "2024-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("NEW"))
+                .andExpect(jsonPath("$[0].orders").value(2))
+                .andExpect(jsonPath("$[0].revenue").value(50.0));
+    }
+
+    @Test
+    void placeOrder_ShouldPlaceTheLinesThroughTheService() throws Exception {
+        when(orderService.placeOrder(any(Order.class))).thenReturn(order);
+
+        mockMvc.perform(post("/api/v1/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":3,\"email\":\"john@example.com\",\"lines\":[{\"productId\":5,\"quantity\":2}]}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.orderId").value(7));
+
+        ArgumentCaptor<Order> placed = ArgumentCaptor.forClass(Order.class);
+        verify(orderService).placeOrder(placed.capture());
+        assertEquals(3L, placed.getValue().getUser().getUserId());
+        assertEquals(1, placed.getValue().getLines().size());
+        assertEquals(5L, placed.getValue().getLines().get(0).getProduct().getProductId());
+        assertEquals(2, placed.getValue().getLines().get(0).getQuantity());
+    }
+
+    @Test
+    void placeOrder_WhenAProductIsShort_ShouldRespondConflict() throws Exception {
+        when(orderService.placeOrder(any(Order.class))).thenThrow(new InsufficientStockException(5L, 2));
+
+        mockMvc.perform(post("/api/v1/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"john@example.com\",\"lines\":[{\"productId\":5,\"quantity\":2}]}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void placeOrder_WithoutLines_ShouldRespondBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"john@example.com\",\"lines\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(orderService, never()).placeOrder(any(Order.class));
+    }
+}
@@ -0,0 +1,162 @@
+package com.uams.controller.api;
+
+import com.uams.dto.UserPatch;
+import com.uams.model.Address;
+import com.uams.model.User;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
+import com.uams.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserApiControllerTest {
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private UserApiController userApiController;
+
+    private MockMvc mockMvc;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(userApiController)
+                .addFilters(new ShallowEtagHeaderFilter())
+                .build();
+
+        user = new User();
+        user.setUserId(1L);
+        user.setEmail("john@example.com");
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setPassword("secret123");
+    }
+
+    @Test
+    void listUsers_ShouldReturnFlatDtosAndCursor() throws Exception {
+        when(userService.getUsersPage(any(KeysetPageRequest.class)))
+                .thenReturn(new KeysetPage<>(List.of(user), KeysetPageRequest.of(null, 1, null, "asc"), 1L));
+
+        mockMvc.perform(get("/api/v1/users").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].email").value("john@example.com"))
+                .andExpect(jsonPath("$.items[0].password").doesNotExist())
+                .andExpect(jsonPath("$.items[0].addresses").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value(1));
+    }
+
+    @Test
+    void getUser_WithFields_ShouldSerialiseOnlyThoseProperties() throws Exception {
+        when(userService.getUserById(1L)).thenReturn(Optional.of(user));
+
+        mockMvc.perform(get("/api/v1/users/1").param("fields", "userId,email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(1))
+                .andExpect(jsonPath("$.email").value("john@example.com"))
+                .andExpect(jsonPath("$.firstName").doesNotExist());
+    }
+
+    @Test
+    void getUser_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        when(userService.getUserById(1L)).thenReturn(Optional.of(user));
+
+        String etag = mockMvc.perform(get("/api/v1/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/users/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getUser_WithUnknownId_ShouldReturnNotFound() throws Exception {
+        when(userService.getUserById(99L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v1/users/99"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getUserAddresses_ShouldReturnAddressDtos() throws Exception {
+        Address address = new Address();
+        address.setAddressId(5L);
+        address.setStreet("1 Main St");
+        address.setCity("Pune");
+        address.setState("MH");
+        address.setPincode("411001");
+        user.addAddress(address);
+        when(userService.getUserWithAddresses(1L)).thenReturn(Optional.of(user));
+
+        mockMvc.perform(get("/api/v1/users/1/addresses"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].addressId").value(5))
+                .andExpect(jsonPath("$[0].users").doesNotExist());
+    }
+
+    @Test
+    void updateUser_ShouldPassOnlyTheSentPropertiesAndVersion() throws Exception {
+        ArgumentCaptor<UserPatch> patch = ArgumentCaptor.forClass(UserPatch.class);
+        when(userService.updateUser(eq(1L), patch.capture())).thenReturn(true);
+
+        mockMvc.perform(patch("/api/v1/users/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\": 4, \"lastName\": \"Smith\"}"))
+                .andExpect(status().isNoContent());
+
+        assertEquals(4L, patch.getValue().getVersion());
+        assertEquals(Map.of("lastName", "Smith"), patch.getValue().changes());
+    }
+
+    @Test
+    void updateUser_WithStaleVersion_ShouldReturnConflict() throws Exception {
+        when(userService.updateUser(eq(1L), any(UserPatch.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L));
+
+        mockMvc.perform(patch("/api/v1/users/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\": 3, \"lastName\": \"Smith\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void updateUser_WithoutVersion_ShouldBeRejected() throws Exception {
+        mockMvc.perform(patch("/api/v1/users/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lastName\": \"Smith\"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).updateUser(any(), any());
+    }
+}
@@ -0,0 +1,78 @@
+package com.uams.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolSaturationMonitorTest {
+
+    private MeterRegistry registry;
+    private AtomicInteger active;
+    private AtomicInteger pending;
+    private PoolSaturationMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        active = new AtomicInteger();
+        pending = new AtomicInteger();
+        Gauge.builder("hikaricp.connections.active", active, AtomicInteger::get).tag("pool", "primary").register(registry);
+        Gauge.builder("hikaricp.connections.pending", pending, AtomicInteger::get).tag("pool", "primary").register(registry);
+        Gauge.builder("hikaricp.connections.max", () -> 10).tag("pool", "primary").register(registry);
+        monitor = new PoolSaturationMonitor(registry, 0.9);
+    }
+
+    @Test
+    void check_WithSpareConnections_ShouldNotCountSaturation() {
+        active.set(5);
+
+        monitor.check();
+
+        assertEquals(0, saturations());
+    }
+
+    @Test
+    void check_WhenThreadsAreWaiting_ShouldCountSaturationOncePerEpisode() {
+        active.set(10);
+        pending.set(3);
+
+        monitor.check();
+        monitor.check();
+
+        assertEquals(1, saturations());
+    }
+
+    @Test
+    void check_AtTheThreshold_ShouldCountSaturation() {
+        active.set(9);
+
+        monitor.check();
+
+        assertEquals(1, saturations());
+    }
+
+    @Test
+    void check_AfterRecovery_ShouldCountTheNextSaturationAgain() {
+        pending.set(1);
+        monitor.check();
+        pending.set(0);
+        active.set(2);
+        monitor.check();
+        pending.set(1);
+        monitor.check();
+
+        assertEquals(2, saturations());
+    }
+
+    private double saturations() {
+        Counter counter = registry.find(PoolSaturationMonitor.SATURATION_METRIC).tag("pool", "primary").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
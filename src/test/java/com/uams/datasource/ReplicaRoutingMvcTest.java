@@ -0,0 +1,123 @@
+package com.uams.datasource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Whole requests against a primary and a replica, as in {@link ReplicaRoutingTest}: a read-only
+ * transaction early in a request must not leave the rest of the request on the replica.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingMvcTest.PRIMARY_URL,
+        "uams.datasource.replicas[0].url=" + ReplicaRoutingMvcTest.REPLICA_URL,
+        "uams.datasource.replicas[0].username=sa",
+        "uams.datasource.heartbeat-interval=0",
+        "uams.datasource.max-lag=5s"
+})
+@AutoConfigureMockMvc
+public class ReplicaRoutingMvcTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:mvc-routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:mvc-routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static JdbcTemplate replica;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    private JdbcTemplate primary;
+
+    @BeforeAll
+    static void migrateReplica() {
+        DataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        replica = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica.update("update replication_heartbeat set beat_at = ? where id = 1", System.currentTimeMillis());
+        routingDataSource.getLagMonitor().refresh();
+        assertFalse(routingDataSource.getLagMonitor().getHealthyReplicas().isEmpty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (JdbcTemplate database : new JdbcTemplate[]{primary, replica}) {
+            database.update("delete from user_address");
+            database.update("delete from addresses");
+            database.update("delete from users");
+        }
+    }
+
+    @Test
+    void addressImport_ShouldWriteToThePrimaryAfterItsReadOnlyLookup() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "addresses.csv", "text/csv",
+                "buildingName,street,city,state,pincode\nTower A,1 Main St,Pune,MH,411001\n".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/addresses/import").file(file))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(1, count(primary, "select count(*) from addresses"));
+        assertEquals(0, count(replica, "select count(*) from addresses"));
+    }
+
+    @Test
+    void userImport_ShouldWriteToThePrimaryAfterItsReadOnlyLookup() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv",
+                "email,firstName,lastName,mobileNumber,password\nnew@example.com,New,User,,password\n".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/users/import").file(file))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(1, count(primary, "select count(*) from users"));
+        assertEquals(0, count(replica, "select count(*) from users"));
+    }
+
+    @Test
+    void userAddresses_ShouldBeLoadedWithoutAnOpenSession() throws Exception {
+        primary.update("insert into users (user_id, email, first_name, last_name, password) "
+                + "values (900001, 'john@example.com', 'John', 'Doe', 'password')");
+        primary.update("insert into addresses (address_id, street, city, state, pincode) "
+                + "values (900002, '1 Main St', 'Pune', 'MH', '411001')");
+        primary.update("insert into user_address (user_id, address_id) values (900001, 900002)");
+
+        mockMvc.perform(get("/api/v1/users/900001/addresses"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].addressId").value(900002));
+        mockMvc.perform(get("/users/900001/addresses"))
+                .andExpect(status().isOk());
+    }
+
+    private static int count(JdbcTemplate database, String sql) {
+        return database.queryForObject(sql, Integer.class);
+    }
+}
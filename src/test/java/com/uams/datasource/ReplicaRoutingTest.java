@@ -0,0 +1,165 @@
+package com.uams.datasource;
+
+import com.uams.config.ReplicaDataSourceConfig;
+import com.uams.model.User;
+import com.uams.pagination.KeysetPageRequest;
+import com.uams.service.UserService;
+import com.uams.service.BulkDeletionServiceImpl;
+import com.uams.service.DeletionProperties;
+import com.uams.service.ProductService;
+import com.uams.service.ProductServiceImpl;
+import com.uams.service.UserServiceImpl;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two embedded databases stand in for a primary and its replica. They are not
+ * replicated, so every row and heartbeat on the "replica" is written by the test.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+        "uams.datasource.replicas[0].url=" + ReplicaRoutingTest.REPLICA_URL,
+        "uams.datasource.replicas[0].username=sa",
+        "uams.datasource.heartbeat-interval=0",
+        "uams.datasource.max-lag=5s"
+})
+@Import({ReplicaDataSourceConfig.class, UserServiceImpl.class, ProductServiceImpl.class,
+        BulkDeletionServiceImpl.class, DeletionProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static JdbcTemplate replica;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    private JdbcTemplate primary;
+
+    @BeforeAll
+    static void migrateReplica() {
+        DataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        replica = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        userService.saveUser(user("primary@example.com"));
+        replica.update("insert into users (user_id, email, first_name, last_name, password) "
+                + "values (1000, 'replica@example.com', 'Rita', 'Replica', 'password')");
+        replicaHeartbeat(System.currentTimeMillis());
+        routingDataSource.getLagMonitor().refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.update("delete from users");
+        replica.update("delete from users");
+        replica.update("delete from products");
+    }
+
+    @Test
+    void readOnlyServiceCalls_ShouldBeServedByTheReplica() {
+        assertEquals(List.of("replica-1"), routingDataSource.getLagMonitor().getHealthyReplicas());
+        assertEquals(List.of("replica@example.com"), emails(userService.getAllUsers()));
+    }
+
+    @Test
+    void emailLookups_ShouldFillTheEmailCacheFromThePrimary() {
+        assertEquals(List.of("replica-1"), routingDataSource.getLagMonitor().getHealthyReplicas());
+
+        assertTrue(userService.findByEmail("replica@example.com").isEmpty());
+        assertFalse(userService.existsByEmail("replica@example.com"));
+        assertTrue(userService.findByEmail("primary@example.com").isPresent());
+    }
+
+    @Test
+    void editFormAndCatalogueReads_ShouldBeServedByThePrimary() {
+        replica.update("insert into users (user_id, email, first_name, last_name, password) "
+                + "values (1001, 'taken@example.com', 'Rita', 'Replica', 'password')");
+        replica.update("insert into products (product_id, name, price, stock_quantity) values (77, 'Pen', 1.50, 10)");
+        assertEquals(List.of("replica-1"), routingDataSource.getLagMonitor().getHealthyReplicas());
+
+        assertTrue(userService.getUserById(1000L).isEmpty());
+        assertFalse(userService.existsByEmail("taken@example.com"));
+        assertTrue(productService.getProductById(77L).isEmpty());
+        assertTrue(productService.getAllProducts().isEmpty());
+        assertTrue(productService.getProductsPage(KeysetPageRequest.firstPage()).getContent().isEmpty());
+    }
+
+    @Test
+    void writes_ShouldGoToThePrimary() {
+        userService.saveUser(user("new@example.com"));
+
+        assertEquals(1, count(primary, "new@example.com"));
+        assertEquals(0, count(replica, "new@example.com"));
+    }
+
+    @Test
+    void laggingReplica_ShouldFallBackToThePrimary() {
+        replicaHeartbeat(System.currentTimeMillis() - 60_000);
+        routingDataSource.getLagMonitor().refresh();
+
+        assertTrue(routingDataSource.getLagMonitor().getHealthyReplicas().isEmpty());
+        assertEquals(List.of("primary@example.com"), emails(userService.getAllUsers()));
+    }
+
+    @Test
+    void refresh_ShouldWriteTheHeartbeatToThePrimary() {
+        Long beatAt = primary.queryForObject("select beat_at from replication_heartbeat where id = 1", Long.class);
+
+        assertTrue(System.currentTimeMillis() - beatAt < 60_000);
+    }
+
+    private static void replicaHeartbeat(long beatAt) {
+        replica.update("update replication_heartbeat set beat_at = ? where id = 1", beatAt);
+    }
+
+    private static int count(JdbcTemplate database, String email) {
+        return database.queryForObject("select count(*) from users where email = ?", Integer.class, email);
+    }
+
+    private static List<String> emails(List<User> users) {
+        return users.stream().map(User::getEmail).collect(Collectors.toList());
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setFirstName("First");
+        user.setLastName("Last");
+        user.setPassword("password");
+        return user;
+    }
+}
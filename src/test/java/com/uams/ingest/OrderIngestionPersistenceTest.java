@@ -0,0 +1,119 @@
+package com.uams.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uams.model.Address;
+import com.uams.model.Order;
+import com.uams.model.User;
+import com.uams.service.BulkDeletionServiceImpl;
+import com.uams.service.DeletionProperties;
+import com.uams.service.OrderService;
+import com.uams.service.OrderServiceImpl;
+import com.uams.service.StockReservationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes ingested orders to the database, where the queue tests use a mocked service.
+ * The queue commits on its own thread, so nothing here runs in a test transaction.
+ */
+@DataJpaTest
+@Import({OrderServiceImpl.class, StockReservationServiceImpl.class, BulkDeletionServiceImpl.class, DeletionProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OrderIngestionPersistenceTest {
+
+    private static final long USER_ID = 900001L;
+    private static final long ADDRESS_ID = 900002L;
+
+    @TempDir
+    Path walDirectory;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into users (user_id, email, first_name, last_name, password) "
+                + "values (?, 'buyer@example.com', 'First', 'Last', 'password')", USER_ID);
+        jdbcTemplate.update("insert into addresses (address_id, street, city, state, pincode) "
+                + "values (?, '1 Main St', 'Pune', 'MH', '411001')", ADDRESS_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from orders");
+        jdbcTemplate.update("delete from addresses");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void saveAllOrders_ShouldStoreAnIngestedOrderWithItsUserAndAddress() {
+        IngestedOrder ingested = IngestedOrder.of(order("N1"));
+        ingested.setIngestionKey("key-1");
+
+        orderService.saveAllOrders(List.of(ingested.toOrder()));
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("select user_id, address_id, ingestion_key from orders");
+        assertEquals(USER_ID, ((Number) row.get("user_id")).longValue());
+        assertEquals(ADDRESS_ID, ((Number) row.get("address_id")).longValue());
+        assertEquals("key-1", row.get("ingestion_key"));
+    }
+
+    @Test
+    void queue_ShouldWriteAcceptedOrdersAndParkTheOnesTheDatabaseRefuses() throws Exception {
+        OrderIngestionProperties properties = new OrderIngestionProperties();
+        properties.setWalDirectory(walDirectory);
+        properties.setFsync(false);
+        properties.setMaxBatchDelay(Duration.ofMillis(200));
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        OrderIngestionQueue queue = new OrderIngestionQueue(orderService,
+                new OrderWriteAheadLog(walDirectory, objectMapper, false), properties, new SimpleMeterRegistry());
+        queue.start();
+
+        queue.accept(order("N1"));
+        Order invalid = order("N2");
+        invalid.setEmail(null);
+        queue.accept(invalid);
+        queue.accept(order("N3"));
+        // drains the queue before returning
+        queue.close();
+
+        assertEquals(List.of("N1", "N3"), jdbcTemplate.queryForList(
+                "select order_number from orders where user_id = ? and address_id = ? order by order_number",
+                String.class, USER_ID, ADDRESS_ID));
+        assertEquals(0, Files.size(walDirectory.resolve("orders.wal")));
+        List<String> parked = Files.readAllLines(walDirectory.resolve("orders.dead"));
+        assertEquals(1, parked.size());
+        assertEquals("N2", objectMapper.readValue(parked.get(0), IngestedOrder.class).getOrderNumber());
+    }
+
+    private static Order order(String orderNumber) {
+        User user = new User();
+        user.setUserId(USER_ID);
+        Address address = new Address();
+        address.setAddressId(ADDRESS_ID);
+        return new Order(user, address, "buyer@example.com", orderNumber, LocalDateTime.of(2024, 5, 1, 10, 0),
+                "NEW", new BigDecimal("25.00"));
+    }
+}
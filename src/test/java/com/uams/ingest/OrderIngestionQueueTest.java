@@ -0,0 +1,246 @@
+package com.uams.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uams.model.Order;
+import com.uams.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class OrderIngestionQueueTest {
+
+    @TempDir
+    Path walDirectory;
+
+    @Mock
+    private OrderService orderService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<Order> saved = new ArrayList<>();
+    private MeterRegistry registry;
+    private OrderIngestionProperties properties;
+    private OrderIngestionQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        properties = new OrderIngestionProperties();
+        properties.setWalDirectory(walDirectory);
+        properties.setFsync(false);
+        properties.setMaxBatchDelay(Duration.ofMillis(20));
+        when(orderService.findExistingIngestionKeys(anyCollection())).thenReturn(Set.of());
+        when(orderService.saveAllOrders(anyList())).thenAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            synchronized (saved) {
+                saved.addAll(orders);
+            }
+            return orders;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (queue != null) {
+            queue.close();
+        }
+    }
+
+    @Test
+    void accept_ShouldAcknowledgeWithAnOrderNumberAndWriteInBatches() throws Exception {
+        start();
+
+        String orderNumber = queue.accept(order(null));
+        for (int i = 0; i < 9; i++) {
+            queue.accept(order("N" + i));
+        }
+
+        awaitSaved(10);
+        assertTrue(orderNumber.startsWith("ORD-"));
+        assertEquals(10, saved.stream().map(Order::getIngestionKey).filter(Objects::nonNull).distinct().count());
+        assertEquals(orderNumber, saved.get(0).getOrderNumber());
+        verify(orderService, atMost(10)).saveAllOrders(anyList());
+        assertEquals(10, registry.get("uams.order.ingestion.orders").tag("result", "accepted").counter().count());
+        awaitEmptyLog();
+    }
+
+    @Test
+    void accept_WhenTheQueueIsFull_ShouldRejectTheOrder() throws Exception {
+        properties.setQueueCapacity(1);
+        properties.setAcceptTimeout(Duration.ofMillis(10));
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        }).when(orderService).saveAllOrders(anyList());
+        start();
+
+        queue.accept(order("N1"));
+
+        assertThrows(OrderQueueFullException.class, () -> queue.accept(order("N2")));
+        assertEquals(1, registry.get("uams.order.ingestion.orders").tag("result", "rejected").counter().count());
+        assertEquals(1, registry.get("uams.order.ingestion.queue.depth").gauge().value());
+        release.countDown();
+    }
+
+    @Test
+    void start_ShouldReplayOrdersThatWereNotCommitted() throws Exception {
+        OrderWriteAheadLog log = new OrderWriteAheadLog(walDirectory, objectMapper, false);
+        log.recover();
+        for (String number : List.of("N1", "N2", "N3")) {
+            IngestedOrder ingested = IngestedOrder.of(order(number));
+            ingested.setIngestionKey("K-" + number);
+            log.append(ingested);
+        }
+        log.commit(1);
+        log.close();
+        assertFalse(Files.readString(walDirectory.resolve("orders.wal")).contains("acceptedAt"));
+        // N2 was committed, but the process stopped before its checkpoint
+        when(orderService.findExistingIngestionKeys(anyCollection())).thenReturn(Set.of("K-N2"));
+
+        start();
+
+        awaitSaved(1);
+        assertEquals(List.of("N3"), orderNumbers());
+        awaitEmptyLog();
+        assertTrue(registry.get("uams.order.ingestion.lag").timer().max(TimeUnit.SECONDS) < 5);
+    }
+
+    @Test
+    void recover_ShouldTruncateATornLastLineBeforeAppending() throws Exception {
+        OrderWriteAheadLog log = new OrderWriteAheadLog(walDirectory, objectMapper, false);
+        log.recover();
+        log.append(IngestedOrder.of(order("N1")));
+        log.close();
+        Path file = walDirectory.resolve("orders.wal");
+        Files.writeString(file, "{\"sequence\":2,\"orderNum", StandardOpenOption.APPEND);
+
+        log = new OrderWriteAheadLog(walDirectory, objectMapper, false);
+        assertEquals(1, log.recover().size());
+        log.append(IngestedOrder.of(order("N2")));
+        log.close();
+
+        log = new OrderWriteAheadLog(walDirectory, objectMapper, false);
+        assertEquals(List.of("N1", "N2"),
+                log.recover().stream().map(IngestedOrder::getOrderNumber).collect(Collectors.toList()));
+        log.close();
+    }
+
+    @Test
+    void flush_WhenTheDatabaseIsUnavailable_ShouldRetryTheBatch() throws Exception {
+        when(orderService.saveAllOrders(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenAnswer(invocation -> {
+                    List<Order> orders = invocation.getArgument(0);
+                    synchronized (saved) {
+                        saved.addAll(orders);
+                    }
+                    return orders;
+                });
+        start();
+
+        queue.accept(order("N1"));
+
+        awaitSaved(1);
+        assertEquals(List.of("N1"), orderNumbers());
+        assertEquals(0, registry.get("uams.order.ingestion.orders").tag("result", "failed").counter().count());
+    }
+
+    @Test
+    void flush_WithAnInvalidOrder_ShouldParkOnlyThatOrder() throws Exception {
+        properties.setMaxBatchDelay(Duration.ofMillis(200));
+        when(orderService.saveAllOrders(anyList())).thenAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            if (orders.stream().anyMatch(order -> order.getEmail() == null)) {
+                throw new DataIntegrityViolationException("email cannot be null");
+            }
+            synchronized (saved) {
+                saved.addAll(orders);
+            }
+            return orders;
+        });
+        start();
+
+        queue.accept(order("N1"));
+        Order invalid = order("N2");
+        invalid.setEmail(null);
+        queue.accept(invalid);
+        queue.accept(order("N3"));
+
+        awaitSaved(2);
+        assertEquals(List.of("N1", "N3"), orderNumbers());
+        assertEquals(1, registry.get("uams.order.ingestion.orders").tag("result", "failed").counter().count());
+        List<String> parked = Files.readAllLines(walDirectory.resolve("orders.dead"));
+        assertEquals(1, parked.size());
+        assertEquals("N2", objectMapper.readValue(parked.get(0), IngestedOrder.class).getOrderNumber());
+    }
+
+    private void start() throws Exception {
+        queue = new OrderIngestionQueue(orderService, new OrderWriteAheadLog(walDirectory, objectMapper, false),
+                properties, registry);
+        queue.start();
+    }
+
+    private void awaitSaved(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            synchronized (saved) {
+                if (saved.size() >= count) {
+                    return;
+                }
+            }
+            Thread.sleep(10);
+        }
+        fail("Expected " + count + " saved orders but got " + saved.size());
+    }
+
+    private void awaitEmptyLog() throws Exception {
+        Path file = walDirectory.resolve("orders.wal");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (Files.size(file) > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, Files.size(file));
+    }
+
+    private List<String> orderNumbers() {
+        synchronized (saved) {
+            return saved.stream().map(Order::getOrderNumber).collect(Collectors.toList());
+        }
+    }
+
+    private static Order order(String orderNumber) {
+        return new Order(null, null, "buyer@example.com", orderNumber, LocalDateTime.of(2024, 5, 1, 10, 0), "NEW", new BigDecimal("25.00"));
+    }
+}
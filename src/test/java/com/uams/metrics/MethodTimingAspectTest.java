@@ -0,0 +1,72 @@
+package com.uams.metrics;
+
+import com.uams.model.User;
+import com.uams.repository.UserRepository;
+import com.uams.service.BulkDeletionService;
+import com.uams.service.UserService;
+import com.uams.service.UserServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MethodTimingAspectTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private BulkDeletionService deletionService;
+
+    private MeterRegistry registry;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new UserServiceImpl(userRepository, jdbcTemplate, deletionService));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new MethodTimingAspect(registry));
+        userService = factory.getProxy();
+    }
+
+    @Test
+    void serviceMethod_ShouldBeTimedWithLayerClassAndMethodTags() {
+        when(userRepository.findAll()).thenReturn(List.of(new User()));
+
+        userService.getAllUsers();
+        userService.getAllUsers();
+
+        Timer timer = registry.find(MethodTimingAspect.METRIC)
+                .tags("layer", "service", "class", "UserServiceImpl", "method", "getAllUsers", "exception", "none")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    void failingServiceMethod_ShouldBeTimedWithTheException() {
+        when(userRepository.findAll()).thenThrow(new IllegalStateException("database down"));
+
+        assertThrows(IllegalStateException.class, () -> userService.getAllUsers());
+
+        assertNotNull(registry.find(MethodTimingAspect.METRIC)
+                .tags("method", "getAllUsers", "exception", "IllegalStateException")
+                .timer());
+    }
+}
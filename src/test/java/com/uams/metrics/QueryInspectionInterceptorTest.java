@@ -0,0 +1,93 @@
+package com.uams.metrics;
+
+import com.uams.model.User;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.Interceptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryInspectionInterceptorTest {
+
+    private static final String ADDRESSES_OF_USER = "select * from user_address where user_id = ?";
+
+    private QueryStatsRecorder recorder;
+    private MeterRegistry registry;
+    private QueryInspectionProperties properties;
+    private QueryInspectionInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new QueryStatsRecorder();
+        registry = new SimpleMeterRegistry();
+        properties = new QueryInspectionProperties();
+        properties.setRepeatThreshold(3);
+        interceptor = new QueryInspectionInterceptor(recorder, registry, properties);
+        request = new MockHttpServletRequest("GET", "/users/7/addresses");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/{id}/addresses");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void request_ShouldRecordStatementsAndEntityLoadsByUriPattern() {
+        Interceptor entityLoads = recorder.entityLoadInterceptor();
+
+        interceptor.preHandle(request, response, new Object());
+        recorder.inspect("select * from users where user_id = ?");
+        entityLoads.onLoad(new User(), 7L, null, null, null);
+        recorder.inspect(ADDRESSES_OF_USER);
+        entityLoads.onLoad(new User(), 8L, null, null, null);
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertEquals(2, summary(QueryInspectionInterceptor.STATEMENTS_METRIC).totalAmount());
+        assertEquals(2, summary(QueryInspectionInterceptor.ENTITY_LOADS_METRIC).totalAmount());
+        assertNull(registry.find(QueryInspectionInterceptor.N_PLUS_ONE_METRIC).counter());
+    }
+
+    @Test
+    void statementsOutsideARequest_ShouldNotBeCounted() {
+        recorder.inspect("select 1");
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertEquals(0, summary(QueryInspectionInterceptor.STATEMENTS_METRIC).totalAmount());
+    }
+
+    @Test
+    void repeatedStatement_ShouldBeCountedAsPossibleNPlusOne() {
+        interceptor.preHandle(request, response, new Object());
+        for (int i = 0; i < 3; i++) {
+            recorder.inspect(ADDRESSES_OF_USER);
+        }
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertEquals(1, registry.get(QueryInspectionInterceptor.N_PLUS_ONE_METRIC)
+                .tags("uri", "/users/{id}/addresses")
+                .counter().count());
+    }
+
+    @Test
+    void repeatedStatement_WithTheCheckDisabled_ShouldNotBeCounted() {
+        properties.setRepeatThreshold(0);
+
+        interceptor.preHandle(request, response, new Object());
+        for (int i = 0; i < 20; i++) {
+            recorder.inspect(ADDRESSES_OF_USER);
+        }
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertNull(registry.find(QueryInspectionInterceptor.N_PLUS_ONE_METRIC).counter());
+    }
+
+    private DistributionSummary summary(String name) {
+        return registry.get(name).tags("method", "GET", "uri", "/users/{id}/addresses").summary();
+    }
+}
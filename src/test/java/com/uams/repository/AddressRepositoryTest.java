@@ -0,0 +1,109 @@
+package com.uams.repository;
+
+import com.uams.model.Address;
+import com.uams.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class AddressRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        Address linked = address("1 Main St", "Pune", "411001");
+        address("2 Main St", "Pune", "411002");
+        address("3 Oak Ave", "Delhi", "110001");
+        address("4 Oak Ave", "Mumbai", "400001");
+
+        user = new User();
+        user.setEmail("john@example.com");
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setPassword("password");
+        user.addAddress(linked);
+        entityManager.persist(user);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findByPincode_ShouldReturnMatchingAddresses() {
+        assertEquals(List.of("3 Oak Ave"), addressRepository.findByPincode("110001").stream()
+                .map(Address::getStreet).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findByCity_ShouldReturnMatchingAddresses() {
+        assertEquals(List.of("1 Main St", "2 Main St"), streets(addressRepository.findByCity("Pune", firstPage(10))));
+    }
+
+    @Test
+    void findAvailableForUser_ShouldExcludeLinkedAddresses() {
+        Slice<Address> result = addressRepository.findAvailableForUser(user.getUserId(), null, AddressRepository.LIKE_ESCAPE, firstPage(10));
+
+        assertEquals(List.of("2 Main St", "3 Oak Ave", "4 Oak Ave"), streets(result));
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    void findAvailableForUser_WithSearch_ShouldMatchCityStreetOrPincodePrefix() {
+        assertEquals(List.of("2 Main St"), streets(addressRepository.findAvailableForUser(user.getUserId(), "Pune", AddressRepository.LIKE_ESCAPE, firstPage(10))));
+        assertEquals(List.of("4 Oak Ave"), streets(addressRepository.findAvailableForUser(user.getUserId(), "4 Oak", AddressRepository.LIKE_ESCAPE, firstPage(10))));
+        assertEquals(List.of("3 Oak Ave"), streets(addressRepository.findAvailableForUser(user.getUserId(), "110", AddressRepository.LIKE_ESCAPE, firstPage(10))));
+    }
+
+    @Test
+    void findAvailableForUser_WithEscapedWildcards_ShouldMatchThemLiterally() {
+        address("5_A Oak Ave", "Mumbai", "400001");
+        address("50% Oak Ave", "Mumbai", "400001");
+        address("5\\B Oak Ave", "Mumbai", "400001");
+
+        assertEquals(List.of("5_A Oak Ave"), streets(addressRepository.findAvailableForUser(user.getUserId(), "5\\_", AddressRepository.LIKE_ESCAPE, firstPage(10))));
+        assertEquals(List.of("50% Oak Ave"), streets(addressRepository.findAvailableForUser(user.getUserId(), "50\\%", AddressRepository.LIKE_ESCAPE, firstPage(10))));
+        assertEquals(List.of("5\\B Oak Ave"), streets(addressRepository.findAvailableForUser(user.getUserId(), "5\\\\", AddressRepository.LIKE_ESCAPE, firstPage(10))));
+    }
+
+    @Test
+    void findAvailableForUser_ShouldBeBoundedByPageSize() {
+        Slice<Address> result = addressRepository.findAvailableForUser(user.getUserId(), null, AddressRepository.LIKE_ESCAPE, firstPage(2));
+
+        assertEquals(2, result.getNumberOfElements());
+        assertTrue(result.hasNext());
+    }
+
+    private Address address(String street, String city, String pincode) {
+        Address address = new Address();
+        address.setStreet(street);
+        address.setCity(city);
+        address.setState("State");
+        address.setPincode(pincode);
+        return entityManager.persist(address);
+    }
+
+    private PageRequest firstPage(int size) {
+        return PageRequest.of(0, size, Sort.by("addressId"));
+    }
+
+    private List<String> streets(Slice<Address> slice) {
+        return slice.getContent().stream().map(Address::getStreet).collect(Collectors.toList());
+    }
+}
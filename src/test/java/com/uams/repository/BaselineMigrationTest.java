@@ -0,0 +1,68 @@
+package com.uams.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migrates a database created by Hibernate before Flyway was introduced. Those have
+ * the V1 tables, minus the id generator, and are baselined at version 1.
+ */
+public class BaselineMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:baseline;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new DriverManagerDataSource(URL, "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("drop all objects");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__create_schema.sql"));
+        }
+        jdbcTemplate.execute("drop table id_generator");
+        jdbcTemplate.update("insert into users (user_id, email, first_name, last_name, password) "
+                + "values (41, 'john@example.com', 'John', 'Doe', 'password')");
+        jdbcTemplate.update("insert into products (product_id, name, price) values (7, 'Widget', 9.99)");
+    }
+
+    @Test
+    void migrate_ShouldCreateAndSeedTheIdGeneratorOnABaselinedDatabase() {
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+
+        assertTrue(flyway.migrate().success);
+
+        assertEquals(Map.of("users", 42L, "addresses", 1L, "orders", 1L, "products", 8L), nextValues());
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from users where deleted_at is null", Integer.class));
+    }
+
+    private Map<String, Long> nextValues() {
+        return jdbcTemplate.query("select entity_name, next_val from id_generator", rs -> {
+            Map<String, Long> values = new HashMap<>();
+            while (rs.next()) {
+                values.put(rs.getString(1), rs.getLong(2));
+            }
+            return values;
+        });
+    }
+}
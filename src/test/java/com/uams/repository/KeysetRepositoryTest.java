@@ -0,0 +1,165 @@
+package com.uams.repository;
+
+import com.uams.dto.AddressListItem;
+import com.uams.model.Address;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class KeysetRepositoryTest {
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        String[] cities = {"Pune", "Delhi", "Pune", "Agra", "Delhi"};
+        for (String city : cities) {
+            Address address = new Address();
+            address.setStreet("Main St");
+            address.setCity(city);
+            address.setState("State");
+            address.setPincode("411001");
+            addressRepository.save(address);
+        }
+    }
+
+    @Test
+    void findPage_ByPrimaryKey_ShouldWalkAllRowsInIdOrder() {
+        List<Long> ids = new ArrayList<>();
+        KeysetPage<Address> page = addressRepository.findPage(KeysetPageRequest.of(null, 2, null, "asc"));
+        ids.addAll(idsOf(page));
+        while (page.hasNext()) {
+            page = addressRepository.findPage(KeysetPageRequest.of(page.getNextCursor(), 2, null, "asc"));
+            ids.addAll(idsOf(page));
+        }
+
+        assertEquals(5, ids.size());
+        assertEquals(ids.stream().sorted().collect(Collectors.toList()), ids);
+    }
+
+    @Test
+    void findPage_BySortKeyDescending_ShouldBreakTiesOnPrimaryKey() {
+        List<String> cities = new ArrayList<>();
+        KeysetPage<Address> page = addressRepository.findPage(KeysetPageRequest.of(null, 2, "city", "desc"));
+        cities.addAll(citiesOf(page));
+        while (page.hasNext()) {
+            page = addressRepository.findPage(KeysetPageRequest.of(page.getNextCursor(), 2, "city", "desc"));
+            cities.addAll(citiesOf(page));
+        }
+
+        assertEquals(List.of("Pune", "Pune", "Delhi", "Delhi", "Agra"), cities);
+    }
+
+    @Test
+    void findPage_ByNullableSortKey_ShouldIncludeTheNullRowsInBothDirections() {
+        List<Address> addresses = addressRepository.findAll(Sort.by("addressId"));
+        addresses.get(1).setBuildingName("B");
+        addresses.get(3).setBuildingName("A");
+        entityManager.flush();
+        Long[] ids = addresses.stream().map(Address::getAddressId).toArray(Long[]::new);
+
+        assertEquals(List.of(ids[0], ids[2], ids[4], ids[3], ids[1]), walk("buildingName", "asc"));
+        assertEquals(List.of(ids[1], ids[3], ids[4], ids[2], ids[0]), walk("buildingName", "desc"));
+    }
+
+    @Test
+    void findPage_OnLastPage_ShouldHaveNoNextCursor() {
+        KeysetPage<Address> page = addressRepository.findPage(KeysetPageRequest.of(null, 5, null, "asc"));
+
+        assertEquals(5, page.getContent().size());
+        assertFalse(page.hasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void findPage_WithProjection_ShouldPageLikeEntitiesWithoutLoadingThem() {
+        List<Long> entityIds = new ArrayList<>();
+        KeysetPage<Address> entities = addressRepository.findPage(KeysetPageRequest.of(null, 2, "city", "desc"));
+        entityIds.addAll(idsOf(entities));
+        entities = addressRepository.findPage(KeysetPageRequest.of(entities.getNextCursor(), 2, "city", "desc"));
+        entityIds.addAll(idsOf(entities));
+        entityManager.clear();
+
+        List<Long> projectedIds = new ArrayList<>();
+        KeysetPage<AddressListItem> page = addressRepository.findPage(null, KeysetPageRequest.of(null, 2, "city", "desc"), AddressListItem.class);
+        page.getContent().forEach(item -> projectedIds.add(item.getAddressId()));
+        page = addressRepository.findPage(null, KeysetPageRequest.of(page.getNextCursor(), 2, "city", "desc"), AddressListItem.class);
+        page.getContent().forEach(item -> projectedIds.add(item.getAddressId()));
+
+        assertEquals(entityIds, projectedIds);
+        assertEquals("Delhi", page.getContent().get(0).getCity());
+        assertTrue(page.hasNext());
+        // Nothing was added to the persistence context
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void updateVersioned_ShouldSetOnlyTheGivenColumnsAndBumpTheVersion() {
+        Address address = addressRepository.findAll().get(0);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertTrue(addressRepository.updateVersioned(address.getAddressId(), address.getVersion(), Map.of("city", "Mumbai")));
+
+        Address updated = entityManager.find(Address.class, address.getAddressId());
+        assertEquals("Mumbai", updated.getCity());
+        assertEquals(address.getStreet(), updated.getStreet());
+        assertEquals(address.getVersion() + 1, updated.getVersion());
+    }
+
+    @Test
+    void updateVersioned_WithStaleVersion_ShouldFailWithoutWriting() {
+        Address address = addressRepository.findAll().get(0);
+        long version = address.getVersion();
+        entityManager.flush();
+        addressRepository.updateVersioned(address.getAddressId(), version, Map.of("city", "Mumbai"));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> addressRepository.updateVersioned(address.getAddressId(), version, Map.of("city", "Nagpur")));
+        entityManager.clear();
+        assertEquals("Mumbai", entityManager.find(Address.class, address.getAddressId()).getCity());
+    }
+
+    @Test
+    void updateVersioned_WithUnknownId_ShouldReturnFalse() {
+        assertFalse(addressRepository.updateVersioned(-1L, 0, Map.of("city", "Mumbai")));
+    }
+
+    private List<Long> walk(String sortKey, String direction) {
+        List<Long> ids = new ArrayList<>();
+        KeysetPage<Address> page = addressRepository.findPage(KeysetPageRequest.of(null, 2, sortKey, direction));
+        ids.addAll(idsOf(page));
+        while (page.hasNext()) {
+            page = addressRepository.findPage(KeysetPageRequest.of(page.getNextCursor(), 2, sortKey, direction));
+            ids.addAll(idsOf(page));
+        }
+        return ids;
+    }
+
+    private List<Long> idsOf(KeysetPage<Address> page) {
+        return page.getContent().stream().map(Address::getAddressId).collect(Collectors.toList());
+    }
+
+    private List<String> citiesOf(KeysetPage<Address> page) {
+        return page.getContent().stream().map(Address::getCity).collect(Collectors.toList());
+    }
+}
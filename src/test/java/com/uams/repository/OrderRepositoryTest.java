@@ -0,0 +1,294 @@
+package com.uams.repository;
+
+import com.uams.dto.CustomerRevenue;
+import com.uams.dto.DailyRevenue;
+import com.uams.dto.OrderListItem;
+import com.uams.dto.OrderRevenue;
+import com.uams.dto.StatusRevenue;
+import com.uams.model.Address;
+import com.uams.model.Order;
+import com.uams.model.User;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
+import com.uams.service.OrderSearchCriteria;
+import com.uams.service.OrderService;
+import com.uams.service.BulkDeletionServiceImpl;
+import com.uams.service.DeletionProperties;
+import com.uams.service.OrderServiceImpl;
+import com.uams.service.StockReservationServiceImpl;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import javax.persistence.PersistenceException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({OrderServiceImpl.class, StockReservationServiceImpl.class, BulkDeletionServiceImpl.class, DeletionProperties.class})
+public class OrderRepositoryTest {
+
+    private static final int ORDER_COUNT = 6;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Every order gets its own user and address, the worst case for N+1 selects
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            User user = new User();
+            user.setEmail("user" + i + "@example.com");
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setPassword("password");
+            entityManager.persist(user);
+
+            Address address = new Address();
+            address.setStreet(i + " Main St");
+            address.setCity("City" + i);
+            address.setState("State");
+            address.setPincode("10001");
+            entityManager.persist(address);
+
+            entityManager.persist(new Order(user, address, user.getEmail(), "ORD-" + i,
+                    START.plusDays(i), i % 2 == 0 ? "NEW" : "SHIPPED", BigDecimal.valueOf(10L * i)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllOrders_ShouldFetchUsersAndAddressesInOneStatement() {
+        List<Order> orders = orderService.getAllOrders();
+        touchAssociations(orders);
+
+        assertEquals(ORDER_COUNT, orders.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getOrdersPage_ShouldFetchUsersAndAddressesInOneStatement() {
+        KeysetPage<Order> page = orderService.getOrdersPage(KeysetPageRequest.of(null, 4, null, "asc"));
+        touchAssociations(page.getContent());
+
+        assertEquals(4, page.getContent().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getOrdersPage_WithSortKeyAndCursor_ShouldStillUseOneStatement() {
+        KeysetPage<Order> first = orderService.getOrdersPage(KeysetPageRequest.of(null, 3, "email", "asc"));
+        statistics.clear();
+
+        KeysetPage<Order> second = orderService.getOrdersPage(KeysetPageRequest.of(first.getNextCursor(), 3, "email", "asc"));
+        touchAssociations(second.getContent());
+
+        assertEquals(3, second.getContent().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void streamAll_ShouldReadEveryOrderWithoutInitialisingAssociations() {
+        try (Stream<Order> orders = orderRepository.streamAll()) {
+            long withIds = orders.filter(order -> order.getUser().getUserId() != null
+                    && order.getAddress().getAddressId() != null).count();
+            assertEquals(ORDER_COUNT, withIds);
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByEmailOrderByOrderDateDesc_ShouldReturnTheCustomersOrders() {
+        Slice<Order> orders = orderRepository.findByEmailOrderByOrderDateDesc("user2@example.com", PageRequest.of(0, 10));
+
+        assertEquals(1, orders.getNumberOfElements());
+        assertEquals("ORD-2", orders.getContent().get(0).getOrderNumber());
+    }
+
+    @Test
+    void findByOrderNumber_ShouldFetchUserAndAddressInOneStatement() {
+        List<Order> orders = orderRepository.findByOrderNumber("ORD-3");
+        touchAssociations(orders);
+
+        assertEquals(1, orders.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findExistingIngestionKeys_ShouldMatchKeysRatherThanOrderNumbers() {
+        Order ingested = new Order(null, null, "buyer@example.com", "ORD-1", START, "NEW", BigDecimal.TEN);
+        ingested.setIngestionKey("key-1");
+        entityManager.persistAndFlush(ingested);
+
+        assertEquals(Set.of("key-1"), orderService.findExistingIngestionKeys(List.of("key-1", "key-2", "ORD-1")));
+        Order again = new Order(null, null, "buyer@example.com", "ORD-1", START, "NEW", BigDecimal.TEN);
+        again.setIngestionKey("key-1");
+        assertThrows(PersistenceException.class, () -> entityManager.persistAndFlush(again));
+    }
+
+    @Test
+    void searchOrders_ShouldCombineFilters() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.setStatus("NEW");
+        criteria.setFrom(START.plusDays(1));
+        criteria.setMinTotal(new BigDecimal("15"));
+
+        KeysetPage<Order> page = orderService.searchOrders(criteria, KeysetPageRequest.of(null, 10, null, "asc"));
+
+        assertEquals(List.of("ORD-2", "ORD-4"), orderNumbers(page.getContent()));
+    }
+
+    @Test
+    void searchOrders_ByUserAndDateRange_ShouldMatchOnlyThatUser() {
+        Long userId = orderRepository.findByOrderNumber("ORD-3").get(0).getUser().getUserId();
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.setUserId(userId);
+        criteria.setTo(START.plusDays(5));
+        criteria.setStatus(" ");
+
+        KeysetPage<Order> page = orderService.searchOrders(criteria, KeysetPageRequest.firstPage());
+
+        assertEquals(List.of("ORD-3"), orderNumbers(page.getContent()));
+    }
+
+    @Test
+    void searchOrders_ShouldPageThroughMatchesInOneStatementPerPage() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.setMaxTotal(new BigDecimal("40"));
+
+        KeysetPage<Order> first = orderService.searchOrders(criteria, KeysetPageRequest.of(null, 3, null, "desc"));
+        statistics.clear();
+        KeysetPage<Order> second = orderService.searchOrders(criteria, KeysetPageRequest.of(first.getNextCursor(), 3, null, "desc"));
+        touchAssociations(second.getContent());
+
+        assertEquals(List.of("ORD-4", "ORD-3", "ORD-2"), orderNumbers(first.getContent()));
+        assertEquals(List.of("ORD-1", "ORD-0"), orderNumbers(second.getContent()));
+        assertFalse(second.hasNext());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void searchOrders_ByStatusSortedByOrderDate_ShouldPageNewestFirst() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.setStatus("NEW");
+
+        KeysetPage<Order> first = orderService.searchOrders(criteria, KeysetPageRequest.of(null, 2, "orderDate", "desc"));
+        KeysetPage<Order> second = orderService.searchOrders(criteria, KeysetPageRequest.of(first.getNextCursor(), 2, "orderDate", "desc"));
+
+        assertEquals("orderDate", first.getSortKey());
+        assertEquals(List.of("ORD-4", "ORD-2"), orderNumbers(first.getContent()));
+        assertEquals(List.of("ORD-0"), orderNumbers(second.getContent()));
+    }
+
+    @Test
+    void getRevenueByStatus_ShouldAggregateInOneStatementWithoutLoadingOrders() {
+        List<StatusRevenue> revenue = orderService.getRevenueByStatus(START.toLocalDate(), START.toLocalDate().plusDays(5));
+
+        assertEquals(2, revenue.size());
+        assertEquals("NEW", revenue.get(0).getStatus());
+        assertEquals(3, revenue.get(0).getOrders());
+        assertEquals(new BigDecimal("60.00"), revenue.get(0).getRevenue());
+        assertEquals("SHIPPED", revenue.get(1).getStatus());
+        assertEquals(new BigDecimal("90.00"), revenue.get(1).getRevenue());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getDailyRevenue_ShouldIncludeWholeDaysOfTheRange() {
+        List<DailyRevenue> revenue = orderService.getDailyRevenue(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3));
+
+        assertEquals(List.of(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3)),
+                revenue.stream().map(DailyRevenue::getDay).collect(Collectors.toList()));
+        assertEquals(List.of(new BigDecimal("10.00"), new BigDecimal("20.00")),
+                revenue.stream().map(DailyRevenue::getRevenue).collect(Collectors.toList()));
+    }
+
+    @Test
+    void getTopCustomers_ShouldReturnTheHighestRevenueFirst() {
+        List<CustomerRevenue> customers = orderService.getTopCustomers(START.toLocalDate(), START.toLocalDate().plusDays(5), 2);
+
+        assertEquals(List.of("user5@example.com", "user4@example.com"),
+                customers.stream().map(CustomerRevenue::getEmail).collect(Collectors.toList()));
+        assertEquals(new BigDecimal("50.00"), customers.get(0).getRevenue());
+        assertEquals(1, customers.get(0).getOrders());
+    }
+
+    @Test
+    void getRevenue_ShouldSumAmountsExactly() {
+        LocalDate day = LocalDate.of(2024, 2, 1);
+        for (int i = 0; i < 3; i++) {
+            entityManager.persist(new Order(null, null, "cents@example.com", "CENTS-" + i,
+                    day.atTime(9, i), "NEW", new BigDecimal("0.10")));
+        }
+
+        OrderRevenue revenue = orderService.getRevenue(day, day);
+
+        assertEquals(3, revenue.getOrders());
+        assertEquals(new BigDecimal("0.30"), revenue.getRevenue());
+        assertEquals(BigDecimal.ZERO, orderService.getRevenue(day.plusDays(1), day.plusDays(1)).getRevenue());
+    }
+
+    @Test
+    void searchOrderList_ShouldReadOnlyTheListedColumns() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.setStatus("NEW");
+
+        KeysetPage<OrderListItem> page = orderService.searchOrderList(criteria, KeysetPageRequest.of(null, 10, "email", "asc"));
+
+        assertEquals(List.of("ORD-0", "ORD-2", "ORD-4"),
+                page.getContent().stream().map(OrderListItem::getOrderNumber).collect(Collectors.toList()));
+        assertEquals(new BigDecimal("20.00"), page.getContent().get(1).getTotalAmount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        // Neither orders nor their customers and addresses are loaded
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void emailLookup_ShouldUseTheMigratedIndex() {
+        String plan = (String) entityManager.getEntityManager()
+                .createNativeQuery("explain select order_id from orders where email = 'user2@example.com' order by order_date desc")
+                .getSingleResult();
+
+        assertTrue(plan.toLowerCase().contains("idx_orders_email_order_date"), plan);
+    }
+
+    private List<String> orderNumbers(List<Order> orders) {
+        return orders.stream().map(Order::getOrderNumber).collect(Collectors.toList());
+    }
+
+    private void touchAssociations(List<Order> orders) {
+        for (Order order : orders) {
+            assertNotNull(order.getUser().getEmail());
+            assertNotNull(order.getAddress().getCity());
+        }
+    }
+}
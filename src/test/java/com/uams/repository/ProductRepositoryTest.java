@@ -0,0 +1,119 @@
+package com.uams.repository;
+
+import com.uams.model.Product;
+import com.uams.pagination.KeysetPageRequest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Each repository call runs in its own transaction, as it would from a controller,
+ * so the second-level and query caches behave as in production.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ProductRepositoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Product pen;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        pen = productRepository.save(new Product("Pen", "Blue pen", new BigDecimal("1.50"), 10, "Stationery", null));
+        productRepository.save(new Product("Pencil", "HB pencil", new BigDecimal("0.75"), 20, "Stationery", null));
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void findById_ShouldBeServedFromTheSecondLevelCache() {
+        productRepository.findById(pen.getProductId());
+        productRepository.findById(pen.getProductId());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getDomainDataRegionStatistics(Product.CACHE_REGION).getHitCount());
+    }
+
+    @Test
+    void findAll_ShouldBeServedFromTheQueryCacheUntilAProductIsSaved() {
+        productRepository.findAll();
+        productRepository.findAll();
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        pen.setName("Gel Pen");
+        productRepository.save(pen);
+        statistics.clear();
+
+        List<Product> products = productRepository.findAll();
+        assertEquals(0, statistics.getQueryCacheHitCount());
+        assertEquals(1, statistics.getQueryCacheMissCount());
+        assertTrue(products.stream().anyMatch(product -> "Gel Pen".equals(product.getName())));
+    }
+
+    @Test
+    void save_WithStaleVersion_ShouldBeRejectedWithoutWriting() {
+        Product edited = productRepository.findById(pen.getProductId()).orElseThrow();
+        Product concurrent = productRepository.findById(pen.getProductId()).orElseThrow();
+        edited.setPrice(new BigDecimal("1.75"));
+        productRepository.save(edited);
+        statistics.clear();
+
+        concurrent.setName("Gel Pen");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> productRepository.save(concurrent));
+
+        assertEquals(0, statistics.getEntityUpdateCount());
+        Product stored = productRepository.findById(pen.getProductId()).orElseThrow();
+        assertEquals("Pen", stored.getName());
+        assertEquals(new BigDecimal("1.75"), stored.getPrice());
+    }
+
+    @Test
+    void findByCategoryOrderByName_ShouldReturnTheCategoryInNameOrder() {
+        productRepository.save(new Product("Mug", "Coffee mug", new BigDecimal("5.00"), 5, "Kitchen", null));
+
+        Slice<Product> stationery = productRepository.findByCategoryOrderByName("Stationery", PageRequest.of(0, 10));
+
+        assertEquals(List.of("Pen", "Pencil"), stationery.map(Product::getName).getContent());
+    }
+
+    @Test
+    void findPage_ShouldBeInvalidatedWhenAProductIsDeleted() {
+        assertEquals(2, productRepository.findPage(KeysetPageRequest.firstPage()).getContent().size());
+        assertEquals(2, productRepository.findPage(KeysetPageRequest.firstPage()).getContent().size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        productRepository.deleteById(pen.getProductId());
+
+        assertEquals(1, productRepository.findPage(KeysetPageRequest.firstPage()).getContent().size());
+        assertFalse(productRepository.findById(pen.getProductId()).isPresent());
+    }
+}
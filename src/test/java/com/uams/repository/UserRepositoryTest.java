@@ -0,0 +1,71 @@
+package com.uams.repository;
+
+import com.uams.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class UserRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void saveAll_ShouldBatchInsertsInsteadOfOneStatementPerRow() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            users.add(user("user" + i + "@example.com"));
+        }
+
+        userRepository.saveAll(users);
+        entityManager.flush();
+
+        // 120 rows: three id_generator allocations plus three insert batches of up to 50 rows
+        assertEquals(120, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 20,
+                "expected batched inserts but saw " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void findExistingEmails_ShouldReturnOnlyStoredEmails() {
+        userRepository.save(user("john@example.com"));
+        userRepository.save(user("jane@example.com"));
+        entityManager.flush();
+
+        Set<String> existing = userRepository.findExistingEmails(List.of("john@example.com", "new@example.com"));
+
+        assertEquals(Set.of("john@example.com"), existing);
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setFirstName("First");
+        user.setLastName("Last");
+        user.setPassword("password");
+        return user;
+    }
+}
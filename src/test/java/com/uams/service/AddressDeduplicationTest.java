@@ -0,0 +1,216 @@
+package com.uams.service;
+
+import com.uams.dto.AddressPatch;
+import com.uams.model.Address;
+import com.uams.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import({AddressServiceImpl.class, AddressDeduplicationServiceImpl.class, BulkDeletionServiceImpl.class,
+        DeletionProperties.class})
+public class AddressDeduplicationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AddressService addressService;
+
+    @Autowired
+    private AddressDeduplicationService deduplicationService;
+
+    @Autowired
+    private DeletionProperties deletionProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        deletionProperties.setMode(DeletionProperties.Mode.HARD);
+    }
+
+    @Test
+    void saveAddress_ShouldReturnTheStoredAddressForTheSameNormalisedFields() {
+        Address stored = addressService.saveAddress(address(null, " 12,  Main St. ", "Pune", "MH", "411 001"));
+
+        Address again = addressService.saveAddress(address(null, "12 main st", "PUNE", "mh", "411001"));
+
+        assertEquals(stored.getAddressId(), again.getAddressId());
+        assertEquals("12, Main St.", stored.getStreet());
+        assertEquals("411001", stored.getPincode());
+        assertEquals(1, count("select count(*) from addresses"));
+    }
+
+    @Test
+    void saveAllAddresses_ShouldInsertEachAddressOnce() {
+        Address stored = addressService.saveAddress(address(null, "1 Main St", "Pune", "MH", "411001"));
+
+        List<Address> saved = addressService.saveAllAddresses(List.of(
+                address(null, "1 Main St", "Pune", "MH", "411001"),
+                address(null, "2 Main St", "Pune", "MH", "411001"),
+                address(null, "2 MAIN ST", "Pune", "MH", "411001")));
+        entityManager.flush();
+
+        assertEquals(stored.getAddressId(), saved.get(0).getAddressId());
+        assertSame(saved.get(1), saved.get(2));
+        assertEquals(2, count("select count(*) from addresses"));
+    }
+
+    @Test
+    void withoutExistingAddresses_ShouldDropStoredAddressesAndRepeats() {
+        addressService.saveAddress(address(null, "1 Main St", "Pune", "MH", "411001"));
+
+        List<Address> fresh = addressService.withoutExistingAddresses(List.of(
+                address(null, "1 main st", "Pune", "MH", "411001"),
+                address(null, "2 Main St", "Pune", "MH", "411001"),
+                address(null, "2 Main St", "Pune", "MH", "411001")));
+
+        assertEquals(1, fresh.size());
+        assertEquals("2 Main St", fresh.get(0).getStreet());
+    }
+
+    @Test
+    void updateAddress_ShouldRehashAndRefuseToDuplicateAnotherAddress() {
+        Address first = addressService.saveAddress(address(null, "1 Main St", "Pune", "MH", "411001"));
+        Address second = addressService.saveAddress(address(null, "2 Main St", "Pune", "MH", "411001"));
+
+        AddressPatch moved = new AddressPatch();
+        moved.setVersion(second.getVersion());
+        moved.setCity("Mumbai");
+        assertTrue(addressService.updateAddress(second.getAddressId(), moved));
+        entityManager.clear();
+        assertEquals(second.getAddressId(),
+                addressService.saveAddress(address(null, "2 Main St", "Mumbai", "MH", "411001")).getAddressId());
+
+        AddressPatch duplicate = new AddressPatch();
+        duplicate.setVersion(first.getVersion());
+        duplicate.setStreet("2 Main St");
+        duplicate.setCity("Mumbai");
+        assertThrows(DataIntegrityViolationException.class, () -> addressService.updateAddress(first.getAddressId(), duplicate));
+    }
+
+    @Test
+    void softDeletedAddress_ShouldNotBlockCreatingItAgain() {
+        deletionProperties.setMode(DeletionProperties.Mode.SOFT);
+        Address stored = addressService.saveAddress(address(null, "1 Main St", "Pune", "MH", "411001"));
+        addressService.deleteAddress(stored.getAddressId());
+        entityManager.clear();
+
+        Address created = addressService.saveAddress(address(null, "1 Main St", "Pune", "MH", "411001"));
+
+        assertNotEquals(stored.getAddressId(), created.getAddressId());
+    }
+
+    @Test
+    void deduplicationJob_ShouldMergeDuplicatesAndMoveTheirLinksAndOrders() throws InterruptedException {
+        User user = entityManager.persistFlushFind(user());
+        Address hashed = addressService.saveAddress(address(null, "1 Main St", "Pune", "MH", "411001"));
+        // stored before address_hash existed
+        insertUnhashed(900001L, "1 MAIN ST.", "Pune", "MH", "411001");
+        insertUnhashed(900002L, "2 Main St", "Pune", "MH", "411001");
+        insertUnhashed(900003L, "2 main st", "Pune", "MH", "411 001");
+        insertUnhashed(900004L, "3 Main St", "Pune", "MH", "411001");
+        insertUnhashed(900005L, "2 Main St", "Pune", "MH", "411001");
+        link(user, 900002L);
+        link(user, 900003L);
+        link(user, 900001L);
+        jdbcTemplate.update("insert into orders (order_id, address_id, email, order_number) values (900101, 900003, 'john@example.com', 'ORD-1')");
+        jdbcTemplate.update("insert into orders (order_id, address_id, email, order_number) values (900102, 900001, 'john@example.com', 'ORD-2')");
+
+        long merged = new AddressDeduplicationJob(deduplicationService, 2, Duration.ZERO).deduplicate();
+
+        assertEquals(3, merged);
+        assertEquals(List.of(hashed.getAddressId(), 900002L, 900004L),
+                jdbcTemplate.queryForList("select address_id from addresses order by address_id", Long.class));
+        assertEquals(0, count("select count(*) from addresses where address_hash is null"));
+        assertEquals(List.of(hashed.getAddressId(), 900002L), jdbcTemplate.queryForList(
+                "select address_id from user_address where user_id = ? order by address_id", Long.class, user.getUserId()));
+        assertEquals(List.of(900002L, hashed.getAddressId()), jdbcTemplate.queryForList(
+                "select address_id from orders order by order_id", Long.class));
+        assertEquals(0, new AddressDeduplicationJob(deduplicationService, 2, Duration.ZERO).deduplicate());
+    }
+
+    @Test
+    void deduplicationJob_WhenABatchKeepsFailing_ShouldStopAfterThreeAttempts() throws Exception {
+        AddressDeduplicationService failing = mock(AddressDeduplicationService.class);
+        when(failing.deduplicate(anyLong(), anyInt()))
+                .thenReturn(new DeduplicationBatch(2, 1, 900002L))
+                .thenThrow(new DuplicateKeyException("uk_addresses_address_hash"));
+        AddressDeduplicationJob job = new AddressDeduplicationJob(failing, 2, Duration.ZERO);
+
+        assertEquals(1, job.deduplicate());
+        verify(failing, times(3)).deduplicate(900002L, 2);
+    }
+
+    @Test
+    void deduplicationJob_ShouldRunOffTheStartingThread() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Thread> runner = new AtomicReference<>();
+        AddressDeduplicationService service = mock(AddressDeduplicationService.class);
+        when(service.deduplicate(anyLong(), anyInt())).thenAnswer(invocation -> {
+            runner.set(Thread.currentThread());
+            done.countDown();
+            return new DeduplicationBatch(0, 0, 0L);
+        });
+
+        try (AddressDeduplicationJob job = new AddressDeduplicationJob(service, 2, Duration.ZERO)) {
+            job.start();
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+
+        assertNotSame(Thread.currentThread(), runner.get());
+        assertEquals("address-deduplication", runner.get().getName());
+    }
+
+    private void insertUnhashed(long id, String street, String city, String state, String pincode) {
+        jdbcTemplate.update("insert into addresses (address_id, street, city, state, pincode) values (?, ?, ?, ?, ?)",
+                id, street, city, state, pincode);
+    }
+
+    private void link(User user, long addressId) {
+        jdbcTemplate.update("insert into user_address (user_id, address_id) values (?, ?)", user.getUserId(), addressId);
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setEmail("john@example.com");
+        user.setFirstName("First");
+        user.setLastName("Last");
+        user.setPassword("password");
+        return user;
+    }
+
+    private static Address address(String buildingName, String street, String city, String state, String pincode) {
+        Address address = new Address();
+        address.setBuildingName(buildingName);
+        address.setStreet(street);
+        address.setCity(city);
+        address.setState(state);
+        address.setPincode(pincode);
+        return address;
+    }
+}
@@ -5,9 +5,13 @@ import com.uams.repository.AddressRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.util.Arrays;
 import java.util.List;
@@ -15,6 +19,8 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +29,9 @@ public class AddressServiceImplTest {
     @Mock
     private AddressRepository addressRepository;
 
+    @Mock
+    private BulkDeletionService deletionService;
+
     @InjectMocks
     private AddressServiceImpl addressService;
 
@@ -90,6 +99,44 @@ public class AddressServiceImplTest {
         verify(addressRepository, times(1)).findById(3L);
     }
 
+    @Test
+    void getAvailableAddressesForUser_ShouldTrimSearchAndBoundTheResult() {
+        // Arrange
+        when(addressRepository.findAvailableForUser(eq(7L), eq("New"), eq(AddressRepository.LIKE_ESCAPE), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(address1)));
+
+        // Act
+        Slice<Address> result = addressService.getAvailableAddressesForUser(7L, "  New ");
+
+        // Assert
+        assertEquals(1, result.getNumberOfElements());
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(addressRepository).findAvailableForUser(eq(7L), eq("New"), eq(AddressRepository.LIKE_ESCAPE), pageable.capture());
+        assertEquals(AddressServiceImpl.AVAILABLE_ADDRESS_LIMIT, pageable.getValue().getPageSize());
+    }
+
+    @Test
+    void getAvailableAddressesForUser_WithBlankSearch_ShouldNotFilter() {
+        // Arrange
+        when(addressRepository.findAvailableForUser(eq(7L), isNull(), eq(AddressRepository.LIKE_ESCAPE), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(address1, address2)));
+
+        // Act
+        Slice<Address> result = addressService.getAvailableAddressesForUser(7L, " ");
+
+        // Assert
+        assertEquals(2, result.getNumberOfElements());
+    }
+
+    @Test
+    void getAvailableAddressesForUser_ShouldEscapeLikeWildcards() {
+        // Act
+        addressService.getAvailableAddressesForUser(7L, "50%_\\");
+
+        // Assert
+        verify(addressRepository).findAvailableForUser(eq(7L), eq("50\\%\\_\\\\"), eq(AddressRepository.LIKE_ESCAPE), any(Pageable.class));
+    }
+
     @Test
     void saveAddress_ShouldReturnSavedAddress() {
         // Arrange
@@ -105,14 +152,15 @@ public class AddressServiceImplTest {
     }
 
     @Test
-    void deleteAddress_ShouldCallRepositoryDeleteById() {
+    void deleteAddress_ShouldDeleteThroughBulkDeletion() {
         // Arrange
-        doNothing().when(addressRepository).deleteById(1L);
+        when(deletionService.delete(DeletableTable.ADDRESSES, List.of(1L))).thenReturn(1);
 
         // Act
         addressService.deleteAddress(1L);
 
         // Assert
-        verify(addressRepository, times(1)).deleteById(1L);
+        verify(deletionService, times(1)).delete(DeletableTable.ADDRESSES, List.of(1L));
+        verify(addressRepository, never()).deleteById(any());
     }
 }
\ No newline at end of file
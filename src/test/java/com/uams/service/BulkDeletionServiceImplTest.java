@@ -0,0 +1,208 @@
+package com.uams.service;
+
+import com.uams.model.Address;
+import com.uams.model.Order;
+import com.uams.model.User;
+import com.uams.repository.OrderRepository;
+import com.uams.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import({BulkDeletionServiceImpl.class, DeletionProperties.class, UserServiceImpl.class,
+        OrderServiceImpl.class, StockReservationServiceImpl.class})
+public class BulkDeletionServiceImplTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BulkDeletionService deletionService;
+
+    @Autowired
+    private DeletionProperties properties;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Address address;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(user("john@example.com"));
+        address = entityManager.persist(address());
+        order = entityManager.persist(order("ORD-1", "NEW"));
+        entityManager.flush();
+        userService.linkAddress(user.getUserId(), address.getAddressId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        properties.setMode(DeletionProperties.Mode.HARD);
+    }
+
+    @Test
+    void deleteUsers_ShouldDeleteTheRowsAndKeepTheirOrders() {
+        User jane = entityManager.persistFlushFind(user("jane@example.com"));
+
+        int deleted = userService.deleteUsers(List.of(user.getUserId(), jane.getUserId(), -1L));
+
+        assertEquals(2, deleted);
+        assertEquals(0, count("select count(*) from users"));
+        assertEquals(0, count("select count(*) from user_address"));
+        entityManager.clear();
+        Order kept = orderRepository.findById(order.getOrderId()).orElseThrow();
+        assertNull(kept.getUser());
+        assertEquals("john@example.com", kept.getEmail());
+    }
+
+    @Test
+    void deleteOrders_ByCriteria_ShouldDeleteOnlyTheMatchingOrders() {
+        for (int i = 0; i < 3; i++) {
+            entityManager.persist(order("ORD-C" + i, "CANCELLED"));
+        }
+        entityManager.flush();
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.setStatus("CANCELLED");
+
+        assertEquals(3, orderService.deleteOrders(criteria));
+
+        assertEquals(List.of("ORD-1"), jdbcTemplate.queryForList("select order_number from orders", String.class));
+    }
+
+    @Test
+    void deleteOrders_WithEmptyCriteria_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> orderService.deleteOrders(new OrderSearchCriteria()));
+        assertEquals(1, count("select count(*) from orders"));
+    }
+
+    @Test
+    void softDelete_ShouldHideTheRowsUntilTheyArePurged() {
+        properties.setMode(DeletionProperties.Mode.SOFT);
+
+        assertEquals(1, userService.deleteUsers(List.of(user.getUserId())));
+        assertEquals(0, userService.deleteUsers(List.of(user.getUserId())));
+
+        entityManager.clear();
+        assertTrue(userRepository.findById(user.getUserId()).isEmpty());
+        assertNull(orderRepository.findById(order.getOrderId()).orElseThrow().getUser());
+        assertEquals(0, count("select count(*) from user_address"));
+        // still in the table, so its email stays taken until the purge
+        assertEquals(1, count("select count(*) from users"));
+        assertTrue(userService.existsByEmail("john@example.com"));
+
+        assertEquals(List.of(user.getUserId()), deletionService.purge(DeletableTable.USERS, 100));
+        assertEquals(0, count("select count(*) from users"));
+        assertEquals(List.of(), deletionService.purge(DeletableTable.USERS, 100));
+    }
+
+    @Test
+    void purger_ShouldFreeThePurgedUsersEmails() throws InterruptedException {
+        properties.setMode(DeletionProperties.Mode.SOFT);
+        // Not used by the other tests: the service, and its email cache, outlive this test's rollback
+        User purged = entityManager.persistAndFlush(user("purged@example.com"));
+        userService.deleteUsers(List.of(purged.getUserId()));
+        assertTrue(userService.existsByEmail("purged@example.com"));
+
+        new SoftDeletePurger(deletionService, userService, new SimpleMeterRegistry(), 100, Duration.ZERO).purge();
+
+        assertFalse(userService.existsByEmail("purged@example.com"));
+    }
+
+    @Test
+    void purger_ShouldPurgeEverySoftDeletedRowInBatches() throws InterruptedException {
+        properties.setMode(DeletionProperties.Mode.SOFT);
+        List<Long> orderIds = new ArrayList<>(List.of(order.getOrderId()));
+        for (int i = 0; i < 4; i++) {
+            orderIds.add(entityManager.persist(order("ORD-S" + i, "NEW")).getOrderId());
+        }
+        entityManager.flush();
+        assertEquals(5, orderService.deleteOrders(orderIds));
+        assertEquals(5, count("select count(*) from orders"));
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SoftDeletePurger purger = new SoftDeletePurger(deletionService, userService, registry, 2, Duration.ZERO);
+
+        assertEquals(5, purger.purge());
+        assertEquals(0, count("select count(*) from orders"));
+        assertEquals(5, registry.get(SoftDeletePurger.PURGED_METRIC).tag("table", "orders").counter().count());
+    }
+
+    @Test
+    void delete_ShouldCommitEachChunkOfIdsSeparately() {
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        when(jdbc.update(eq(DeletableTable.ORDERS.deleteStatement()), anyMap())).thenReturn(1);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        List<Long> ids = LongStream.rangeClosed(1, 2L * BulkDeletionServiceImpl.CHUNK_SIZE + 1).boxed()
+                .collect(Collectors.toList());
+
+        int deleted = new BulkDeletionServiceImpl(jdbc, transactionManager, properties).delete(DeletableTable.ORDERS, ids);
+
+        assertEquals(3, deleted);
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+
+    private Order order(String orderNumber, String status) {
+        return new Order(user, address, user.getEmail(), orderNumber, LocalDateTime.now(), status, new BigDecimal("10.00"));
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setFirstName("First");
+        user.setLastName("Last");
+        user.setPassword("password");
+        return user;
+    }
+
+    private static Address address() {
+        Address address = new Address();
+        address.setStreet("1 Main St");
+        address.setCity("City");
+        address.setState("State");
+        address.setPincode("100000");
+        return address;
+    }
+}
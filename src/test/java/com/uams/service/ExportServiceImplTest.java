@@ -0,0 +1,126 @@
+package com.uams.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.uams.model.Address;
+import com.uams.model.Order;
+import com.uams.model.User;
+import com.uams.repository.AddressRepository;
+import com.uams.repository.OrderRepository;
+import com.uams.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExportServiceImplTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AddressRepository addressRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ExportServiceImpl exportService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new ExportServiceImpl(orderRepository, userRepository, addressRepository,
+                entityManager, objectMapper);
+
+        user = new User();
+        user.setUserId(7L);
+        user.setEmail("john@example.com");
+        user.setFirstName("John");
+        user.setLastName("Doe, Jr");
+        user.setPassword("secret");
+    }
+
+    @Test
+    void exportUsers_AsCsv_ShouldWriteHeaderAndQuoteValuesButNeverThePassword() throws IOException {
+        // Arrange
+        when(userRepository.streamAll()).thenReturn(Stream.of(user));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        exportService.exportUsers(ExportFormat.CSV, out);
+
+        // Assert
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertEquals("userId,email,firstName,lastName,mobileNumber\n" +
+                "7,john@example.com,John,\"Doe, Jr\",\n", csv);
+        assertFalse(csv.contains("secret"));
+    }
+
+    @Test
+    void exportOrders_AsJsonLines_ShouldWriteOneObjectPerLine() throws IOException {
+        // Arrange
+        Address address = new Address();
+        address.setAddressId(3L);
+        Order order = new Order(user, address, "john@example.com", "ORD-1",
+                LocalDateTime.of(2024, 1, 2, 3, 4), "NEW", new BigDecimal("12.50"));
+        order.setOrderId(11L);
+        when(orderRepository.streamAll()).thenReturn(Stream.of(order, order));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        exportService.exportOrders(ExportFormat.JSON_LINES, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"orderId\":11,\"orderNumber\":\"ORD-1\",\"email\":\"john@example.com\"," +
+                "\"orderDate\":\"2024-01-02T03:04:00\",\"status\":\"NEW\",\"totalAmount\":12.50," +
+                "\"userId\":7,\"addressId\":3}", lines[0]);
+    }
+
+    @Test
+    void exportAddresses_ShouldClearThePersistenceContextAsItGoes() throws IOException {
+        // Arrange
+        int rows = ExportServiceImpl.FLUSH_INTERVAL * 2 + 5;
+        when(addressRepository.streamAll()).thenReturn(IntStream.range(0, rows).mapToObj(i -> {
+            Address address = new Address();
+            address.setAddressId((long) i);
+            address.setCity("Pune");
+            return address;
+        }));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        exportService.exportAddresses(ExportFormat.CSV, out);
+
+        // Assert
+        verify(entityManager, times(2)).clear();
+        assertEquals(rows + 1, out.toString(StandardCharsets.UTF_8).split("\n").length);
+    }
+
+    @Test
+    void fromParameter_WithUnknownFormat_ShouldThrow() {
+        assertEquals(ExportFormat.JSON_LINES, ExportFormat.fromParameter("JSONL"));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.fromParameter("xml"));
+    }
+}
@@ -0,0 +1,170 @@
+package com.uams.service;
+
+import com.uams.model.Address;
+import com.uams.model.Product;
+import com.uams.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ImportServiceImplTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private AddressService addressService;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new ImportServiceImpl(userService, addressService, productService,
+                Validation.buildDefaultValidatorFactory().getValidator(), entityManager);
+    }
+
+    @Test
+    void importUsers_ShouldSkipExistingAndRepeatedEmailsAndRejectInvalidRows() throws IOException {
+        // Arrange
+        String csv = "email,firstName,lastName,mobileNumber,password\n" +
+                "john@example.com,John,Doe,123,password\n" +
+                "JOHN@example.com,Johnny,Doe,123,password\n" +
+                "jane@example.com,Jane,Smith,,password\n" +
+                "not-an-email,Bad,Row,,password\n" +
+                "\"smith, jr@example.com\",\"Smith, Jr\",Jones,,short\n";
+        when(userService.findExistingEmails(anyCollection())).thenReturn(Set.of("Jane@example.com"));
+
+        // Act
+        ImportResult result = importService.importUsers(stream(csv));
+
+        // Assert
+        ArgumentCaptor<List<User>> saved = ArgumentCaptor.forClass(List.class);
+        verify(userService, times(1)).saveAllUsers(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals("john@example.com", saved.getValue().get(0).getEmail());
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getDuplicates());
+        assertEquals(2, result.getRejected());
+        assertEquals(2, result.getErrors().size());
+        assertTrue(result.getErrors().get(0).startsWith("line 5:"));
+        assertTrue(result.getSummary().startsWith("Imported 1 users"));
+    }
+
+    @Test
+    void importAddresses_ShouldWriteInChunksAndClearThePersistenceContext() throws IOException {
+        // Arrange
+        int rows = ImportServiceImpl.CHUNK_SIZE * 2 + 1;
+        StringBuilder csv = new StringBuilder("buildingName,street,city,state,pincode\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("B").append(i).append(",Main St,Pune,MH,411001\n");
+        }
+        when(addressService.withoutExistingAddresses(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ImportResult result = importService.importAddresses(stream(csv.toString()));
+
+        // Assert
+        ArgumentCaptor<List<Address>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(addressService, times(3)).saveAllAddresses(chunks.capture());
+        assertEquals(ImportServiceImpl.CHUNK_SIZE, chunks.getAllValues().get(0).size());
+        assertEquals(1, chunks.getAllValues().get(2).size());
+        verify(entityManager, times(3)).clear();
+        assertEquals(rows, result.getImported());
+        assertTrue(result.getRowsPerSecond() > 0);
+    }
+
+    @Test
+    void importProducts_ShouldRejectUnparseablePrices() throws IOException {
+        // Arrange
+        String csv = "name,description,price,stockQuantity,category,imageUrl\n" +
+                "Pen,Blue pen,1.50,10,Stationery,\n" +
+                "Pencil,,abc,5,Stationery,\n" +
+                "Eraser,,0.75,,Stationery,\n";
+
+        // Act
+        ImportResult result = importService.importProducts(stream(csv));
+
+        // Assert
+        ArgumentCaptor<List<Product>> saved = ArgumentCaptor.forClass(List.class);
+        verify(productService).saveAllProducts(saved.capture());
+        assertEquals(2, saved.getValue().size());
+        assertEquals(new BigDecimal("1.50"), saved.getValue().get(0).getPrice());
+        assertNull(saved.getValue().get(1).getStockQuantity());
+        assertEquals(1, result.getRejected());
+    }
+
+    @Test
+    void importUsers_WithWrongColumnCount_ShouldRejectTheRow() throws IOException {
+        // Arrange
+        String csv = "email,firstName,lastName,mobileNumber,password\n" +
+                "john@example.com,John\n";
+
+        // Act
+        ImportResult result = importService.importUsers(stream(csv));
+
+        // Assert
+        assertEquals(0, result.getImported());
+        assertEquals(1, result.getRejected());
+        verify(userService, never()).saveAllUsers(anyList());
+    }
+
+    @Test
+    void importUsers_WithAByteOrderMark_ShouldReadTheFirstColumn() throws IOException {
+        // Arrange
+        String csv = "\uFEFFemail,firstName,lastName,mobileNumber,password\n" +
+                "john@example.com,John,Doe,123,password\n";
+
+        // Act
+        ImportResult result = importService.importUsers(stream(csv));
+
+        // Assert
+        assertEquals(1, result.getImported());
+        assertEquals(0, result.getRejected());
+    }
+
+    @Test
+    void importUsers_WithAnUnclosedQuote_ShouldRejectTheRestOfTheFile() throws IOException {
+        // Arrange
+        String csv = "email,firstName,lastName,mobileNumber,password\n" +
+                "john@example.com,John,Doe,123,password\n" +
+                "jane@example.com,\"Jane,Smith,,password\n" +
+                "jim@example.com,Jim,Beam,,password\n";
+
+        // Act
+        ImportResult result = importService.importUsers(stream(csv));
+
+        // Assert
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertEquals(List.of("line 4: quoted field opened on line 3 is never closed"), result.getErrors());
+    }
+
+    private InputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,210 @@
+package com.uams.service;
+
+import com.uams.dto.ProductPatch;
+import com.uams.model.Order;
+import com.uams.model.Product;
+import com.uams.repository.OrderRepository;
+import com.uams.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Orders are placed in their own transactions, from many threads at once, so the
+ * row locks and the second-level cache behave as in production.
+ */
+@DataJpaTest
+@Import({OrderServiceImpl.class, ProductServiceImpl.class, StockReservationServiceImpl.class,
+        BulkDeletionServiceImpl.class, DeletionProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class StockReservationServiceImplTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Product pen;
+    private Product pencil;
+
+    @BeforeEach
+    void setUp() {
+        pen = productRepository.save(new Product("Pen", "Blue pen", new BigDecimal("1.50"), 50, "Stationery", null));
+        pencil = productRepository.save(new Product("Pencil", "HB pencil", new BigDecimal("0.75"), 5, "Stationery", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void placeOrder_ShouldPriceTheLinesAndTakeThemOutOfStock() {
+        Order order = order();
+        order.addLine(pen, 3);
+        order.addLine(pencil, 2);
+
+        Order placed = orderService.placeOrder(order);
+
+        assertEquals(new BigDecimal("6.00"), placed.getTotalAmount());
+        assertEquals(47, stock(pen));
+        assertEquals(3, stock(pencil));
+        // The cached products were evicted, so reads see the new stock
+        assertEquals(47, productRepository.findById(pen.getProductId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void placeOrder_WhenOneProductIsShort_ShouldReserveNothing() {
+        Order order = order();
+        order.addLine(pen, 3);
+        order.addLine(pencil, 6);
+
+        InsufficientStockException e = assertThrows(InsufficientStockException.class, () -> orderService.placeOrder(order));
+
+        assertEquals(pencil.getProductId(), e.getProductId());
+        assertEquals(50, stock(pen));
+        assertEquals(5, stock(pencil));
+        assertEquals(0, orderRepository.count());
+    }
+
+    @Test
+    void saveOrder_EditedOnTheForm_ShouldKeepTheLinesAndTheirStock() {
+        Order order = order();
+        order.addLine(pen, 3);
+        Order placed = orderService.placeOrder(order);
+
+        // As bound from the order form, which has no lines
+        Order edited = new Order(null, null, "buyer@example.com", "ORD-9", placed.getOrderDate(), "SHIPPED", new BigDecimal("1.00"));
+        edited.setOrderId(placed.getOrderId());
+        orderService.saveOrder(edited);
+
+        assertEquals(3, sold(pen));
+        assertEquals(47, stock(pen));
+        assertEquals("SHIPPED", jdbcTemplate.queryForObject("select status from orders where order_id = ?",
+                String.class, placed.getOrderId()));
+        assertEquals(0, new BigDecimal("4.50").compareTo(jdbcTemplate.queryForObject(
+                "select total_amount from orders where order_id = ?", BigDecimal.class, placed.getOrderId())));
+    }
+
+    @Test
+    void updateProduct_ReadBeforeACheckout_ShouldNotRestoreTheOldStock() {
+        Product edited = productRepository.findById(pen.getProductId()).orElseThrow();
+        Order order = order();
+        order.addLine(pen, 3);
+        orderService.placeOrder(order);
+
+        ProductPatch patch = new ProductPatch();
+        patch.setVersion(edited.getVersion());
+        patch.setStockQuantity(edited.getStockQuantity());
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> productService.updateProduct(pen.getProductId(), patch));
+        assertEquals(47, stock(pen));
+    }
+
+    @Test
+    void updateProduct_ShouldWriteOnlyTheChangedColumns() {
+        Product current = productRepository.findById(pen.getProductId()).orElseThrow();
+        ProductPatch patch = new ProductPatch();
+        patch.setVersion(current.getVersion());
+        patch.setPrice(new BigDecimal("1.80"));
+        // Changed behind Hibernate's back: only the price column may be written
+        jdbcTemplate.update("update products set stock_quantity = 40 where product_id = ?", pen.getProductId());
+
+        assertTrue(productService.updateProduct(pen.getProductId(), patch));
+
+        Product updated = productRepository.findById(pen.getProductId()).orElseThrow();
+        assertEquals(new BigDecimal("1.80"), updated.getPrice());
+        assertEquals(current.getVersion() + 1, updated.getVersion());
+        assertEquals(40, stock(pen));
+    }
+
+    @Test
+    void placeOrder_UnderContention_ShouldNeverOversell() throws Exception {
+        int attempts = 200;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Boolean>> checkouts = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            // Every other checkout also takes a pencil, so some lock two rows
+            boolean withPencil = i % 2 == 0;
+            checkouts.add(() -> {
+                start.await();
+                Order order = order();
+                order.addLine(pen, 1);
+                if (withPencil) {
+                    order.addLine(pencil, 1);
+                }
+                try {
+                    orderService.placeOrder(order);
+                    return true;
+                } catch (InsufficientStockException e) {
+                    return false;
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (Callable<Boolean> checkout : checkouts) {
+            results.add(executor.submit(checkout));
+        }
+        start.countDown();
+        int placed = 0;
+        for (Future<Boolean> result : results) {
+            placed += result.get(30, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertEquals(50, placed);
+        assertEquals(0, stock(pen));
+        assertEquals(50, sold(pen));
+        assertEquals(5, stock(pencil) + sold(pencil));
+        assertTrue(stock(pencil) >= 0);
+    }
+
+    private Order order() {
+        return new Order(null, null, "buyer@example.com", null, LocalDateTime.now(), "NEW", null);
+    }
+
+    private int stock(Product product) {
+        return jdbcTemplate.queryForObject("select stock_quantity from products where product_id = ?",
+                Integer.class, product.getProductId());
+    }
+
+    private int sold(Product product) {
+        return jdbcTemplate.queryForObject("select coalesce(sum(quantity), 0) from order_lines where product_id = ?",
+                Integer.class, product.getProductId());
+    }
+}
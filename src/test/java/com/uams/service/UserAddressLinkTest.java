@@ -0,0 +1,106 @@
+package com.uams.service;
+
+import com.uams.model.Address;
+import com.uams.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({UserServiceImpl.class, BulkDeletionServiceImpl.class, DeletionProperties.class})
+public class UserAddressLinkTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserService userService;
+
+    private User user;
+    private Address home;
+    private Address work;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(user("john@example.com"));
+        home = entityManager.persist(address("1 Main St"));
+        work = entityManager.persist(address("2 Main St"));
+        entityManager.flush();
+    }
+
+    @Test
+    void linkAddress_ShouldLinkOnceAndIgnoreRepeats() {
+        assertTrue(userService.linkAddress(user.getUserId(), home.getAddressId()));
+        assertFalse(userService.linkAddress(user.getUserId(), home.getAddressId()));
+
+        assertEquals(Set.of(home.getAddressId()), linkedAddressIds(user));
+    }
+
+    @Test
+    void linkAddress_WithUnknownIds_ShouldLinkNothing() {
+        assertFalse(userService.linkAddress(user.getUserId(), -1L));
+        assertFalse(userService.linkAddress(-1L, home.getAddressId()));
+
+        assertEquals(Set.of(), linkedAddressIds(user));
+    }
+
+    @Test
+    void unlinkAddress_ShouldRemoveOnlyThatLink() {
+        userService.linkAddress(user.getUserId(), home.getAddressId());
+        userService.linkAddress(user.getUserId(), work.getAddressId());
+
+        assertTrue(userService.unlinkAddress(user.getUserId(), home.getAddressId()));
+        assertFalse(userService.unlinkAddress(user.getUserId(), home.getAddressId()));
+
+        assertEquals(Set.of(work.getAddressId()), linkedAddressIds(user));
+    }
+
+    @Test
+    void linkAddresses_ShouldCountOnlyNewLinks() {
+        User jane = entityManager.persistFlushFind(user("jane@example.com"));
+        userService.linkAddress(user.getUserId(), home.getAddressId());
+
+        int linked = userService.linkAddresses(Map.of(
+                user.getUserId(), List.of(home.getAddressId(), work.getAddressId(), -1L),
+                jane.getUserId(), List.of(work.getAddressId(), work.getAddressId())));
+
+        assertEquals(2, linked);
+        assertEquals(Set.of(home.getAddressId(), work.getAddressId()), linkedAddressIds(user));
+        assertEquals(Set.of(work.getAddressId()), linkedAddressIds(jane));
+    }
+
+    private Set<Long> linkedAddressIds(User user) {
+        entityManager.clear();
+        return entityManager.find(User.class, user.getUserId()).getAddresses().stream()
+                .map(Address::getAddressId)
+                .collect(Collectors.toSet());
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setFirstName("First");
+        user.setLastName("Last");
+        user.setPassword("password");
+        return user;
+    }
+
+    private static Address address(String street) {
+        Address address = new Address();
+        address.setStreet(street);
+        address.setCity("City");
+        address.setState("State");
+        address.setPincode("100000");
+        return address;
+    }
+}
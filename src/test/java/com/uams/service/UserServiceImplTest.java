@@ -1,6 +1,9 @@
 package com.uams.service;
 
+import com.uams.dto.UserPatch;
 import com.uams.model.User;
+import com.uams.pagination.KeysetPage;
+import com.uams.pagination.KeysetPageRequest;
 import com.uams.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,10 +11,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -23,6 +31,9 @@ public class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private BulkDeletionService deletionService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -63,6 +74,37 @@ public class UserServiceImplTest {
         verify(userRepository, times(1)).findAll();
     }
 
+    @Test
+    void getUsersPage_WithAllowedSortKey_ShouldPassRequestToRepository() {
+        // Arrange
+        KeysetPageRequest request = KeysetPageRequest.of(10L, 2, "email", "asc");
+        KeysetPage<User> page = new KeysetPage<>(Arrays.asList(user1, user2), request, 2L);
+        when(userRepository.findPage(request)).thenReturn(page);
+
+        // Act
+        KeysetPage<User> result = userService.getUsersPage(request);
+
+        // Assert
+        assertSame(page, result);
+        assertTrue(result.hasNext());
+        verify(userRepository, times(1)).findPage(request);
+    }
+
+    @Test
+    void getUsersPage_WithUnknownSortKey_ShouldFallBackToPrimaryKey() {
+        // Arrange
+        KeysetPageRequest request = KeysetPageRequest.of(null, 20, "password", "asc");
+        when(userRepository.findPage(any(KeysetPageRequest.class)))
+                .thenAnswer(invocation -> new KeysetPage<>(Arrays.asList(user1), invocation.getArgument(0), null));
+
+        // Act
+        KeysetPage<User> result = userService.getUsersPage(request);
+
+        // Assert
+        assertEquals(KeysetPageRequest.PRIMARY_KEY, result.getSortKey());
+        assertFalse(result.hasNext());
+    }
+
     @Test
     void getUserById_WithExistingId_ShouldReturnUser() {
         // Arrange
@@ -105,67 +147,232 @@ public class UserServiceImplTest {
     }
 
     @Test
-    void deleteUser_ShouldCallRepositoryDeleteById() {
+    void saveAllUsers_ShouldDelegateToRepositorySaveAll() {
+        // Arrange
+        List<User> users = Arrays.asList(user1, user2);
+        when(userRepository.saveAll(users)).thenReturn(users);
+
+        // Act
+        List<User> saved = userService.saveAllUsers(users);
+
+        // Assert
+        assertEquals(2, saved.size());
+        verify(userRepository, times(1)).saveAll(users);
+    }
+
+    @Test
+    void findExistingEmails_WithNoEmails_ShouldNotQueryRepository() {
+        // Act
+        Set<String> existing = userService.findExistingEmails(Collections.emptyList());
+
+        // Assert
+        assertTrue(existing.isEmpty());
+        verify(userRepository, never()).findExistingEmails(any());
+    }
+
+    @Test
+    void deleteUser_ShouldDeleteThroughBulkDeletion() {
         // Arrange
-        doNothing().when(userRepository).deleteById(1L);
+        when(deletionService.delete(DeletableTable.USERS, List.of(1L))).thenReturn(1);
 
         // Act
         userService.deleteUser(1L);
 
         // Assert
-        verify(userRepository, times(1)).deleteById(1L);
+        verify(deletionService, times(1)).delete(DeletableTable.USERS, List.of(1L));
+        verify(userRepository, never()).deleteById(any());
     }
 
     @Test
     void existsByEmail_WithExistingEmail_ShouldReturnTrue() {
         // Arrange
-        when(userRepository.existsByEmail("john@example.com")).thenReturn(true);
+        when(userRepository.findIdByEmail("john@example.com")).thenReturn(Optional.of(1L));
 
         // Act
         boolean exists = userService.existsByEmail("john@example.com");
 
         // Assert
         assertTrue(exists);
-        verify(userRepository, times(1)).existsByEmail("john@example.com");
+        verify(userRepository, times(1)).findIdByEmail("john@example.com");
     }
 
     @Test
     void existsByEmail_WithNonExistingEmail_ShouldReturnFalse() {
         // Arrange
-        when(userRepository.existsByEmail("nonexistent@example.com")).thenReturn(false);
+        when(userRepository.findIdByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
 
         // Act
         boolean exists = userService.existsByEmail("nonexistent@example.com");
 
         // Assert
         assertFalse(exists);
-        verify(userRepository, times(1)).existsByEmail("nonexistent@example.com");
+        verify(userRepository, times(1)).findIdByEmail("nonexistent@example.com");
+    }
+
+    @Test
+    void existsByEmail_ShouldCacheResultsCaseInsensitively() {
+        // Arrange
+        when(userRepository.findIdByEmail("john@example.com")).thenReturn(Optional.of(1L));
+        when(userRepository.findIdByEmail("new@example.com")).thenReturn(Optional.empty());
+
+        // Act
+        userService.existsByEmail("john@example.com");
+        boolean exists = userService.existsByEmail(" John@Example.COM");
+        userService.existsByEmail("new@example.com");
+        boolean absent = userService.existsByEmail("NEW@example.com");
+
+        // Assert
+        assertTrue(exists);
+        assertFalse(absent);
+        verify(userRepository, times(1)).findIdByEmail("john@example.com");
+        verify(userRepository, times(1)).findIdByEmail("new@example.com");
+    }
+
+    @Test
+    void saveUser_ShouldReplaceCachedAbsentEmail() {
+        // Arrange
+        User created = new User();
+        created.setEmail("new@example.com");
+        when(userRepository.findIdByEmail("new@example.com")).thenReturn(Optional.empty());
+        when(userRepository.save(created)).thenAnswer(invocation -> {
+            created.setUserId(3L);
+            return created;
+        });
+
+        // Act
+        assertFalse(userService.existsByEmail("new@example.com"));
+        userService.saveUser(created);
+
+        // Assert
+        assertTrue(userService.existsByEmail("new@example.com"));
+        verify(userRepository, times(1)).findIdByEmail("new@example.com");
+    }
+
+    @Test
+    void saveUser_WithChangedEmail_ShouldForgetPreviousEmail() {
+        // Arrange
+        when(userRepository.findIdByEmail("john@example.com")).thenReturn(Optional.of(1L), Optional.empty());
+        when(userRepository.save(user1)).thenReturn(user1);
+        assertTrue(userService.existsByEmail("john@example.com"));
+
+        // Act
+        user1.setEmail("johnny@example.com");
+        userService.saveUser(user1);
+
+        // Assert
+        assertFalse(userService.existsByEmail("john@example.com"));
+        assertTrue(userService.existsByEmail("johnny@example.com"));
+        verify(userRepository, never()).findIdByEmail("johnny@example.com");
+    }
+
+    @Test
+    void updateUser_WithChangedEmail_ShouldForgetPreviousEmail() {
+        // Arrange
+        when(userRepository.findIdByEmail("john@example.com")).thenReturn(Optional.of(1L), Optional.empty());
+        UserPatch patch = new UserPatch();
+        patch.setVersion(2L);
+        patch.setEmail("johnny@example.com");
+        when(userRepository.updateVersioned(1L, 2L, Map.of("email", "johnny@example.com"))).thenReturn(true);
+        assertTrue(userService.existsByEmail("john@example.com"));
+
+        // Act
+        assertTrue(userService.updateUser(1L, patch));
+
+        // Assert
+        assertFalse(userService.existsByEmail("john@example.com"));
+        assertTrue(userService.existsByEmail("johnny@example.com"));
+        verify(userRepository, never()).findIdByEmail("johnny@example.com");
+    }
+
+    @Test
+    void saveAllUsers_InATransaction_ShouldInvalidateOnlyOnceItCommits() {
+        // Arrange
+        List<User> users = Arrays.asList(user1, user2);
+        when(userRepository.findIdByEmail("jane@example.com")).thenReturn(Optional.empty(), Optional.of(2L));
+        when(userRepository.saveAll(users)).thenReturn(users);
+        assertFalse(userService.existsByEmail("jane@example.com"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            userService.saveAllUsers(users);
+
+            // Assert
+            assertFalse(userService.existsByEmail("jane@example.com"));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertTrue(userService.existsByEmail("jane@example.com"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void saveAllUsers_ShouldInvalidateCachedAbsentEmails() {
+        // Arrange
+        List<User> users = Arrays.asList(user1, user2);
+        when(userRepository.findIdByEmail("jane@example.com")).thenReturn(Optional.empty(), Optional.of(2L));
+        when(userRepository.saveAll(users)).thenReturn(users);
+        assertFalse(userService.existsByEmail("jane@example.com"));
+
+        // Act
+        userService.saveAllUsers(users);
+
+        // Assert
+        assertTrue(userService.existsByEmail("jane@example.com"));
+    }
+
+    @Test
+    void deleteUser_ShouldInvalidateCachedEmail() {
+        // Arrange
+        when(userRepository.findIdByEmail("john@example.com")).thenReturn(Optional.of(1L), Optional.empty());
+        assertTrue(userService.existsByEmail("john@example.com"));
+
+        // Act
+        userService.deleteUser(1L);
+
+        // Assert
+        assertFalse(userService.existsByEmail("john@example.com"));
+        verify(userRepository, times(2)).findIdByEmail("john@example.com");
     }
 
     @Test
     void findByEmail_WithExistingEmail_ShouldReturnUser() {
         // Arrange
-        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(user1));
+        when(userRepository.findIdByEmail("john@example.com")).thenReturn(Optional.of(1L));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
 
         // Act
-        Optional<User> result = userService.findByEmail("john@example.com");
+        Optional<User> result = userService.findByEmail("John@example.com");
 
         // Assert
         assertTrue(result.isPresent());
         assertEquals(user1.getEmail(), result.get().getEmail());
-        verify(userRepository, times(1)).findByEmail("john@example.com");
+        verify(userRepository, never()).findByEmail(any());
     }
 
     @Test
     void findByEmail_WithNonExistingEmail_ShouldReturnEmpty() {
         // Arrange
-        when(userRepository.findByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
+        when(userRepository.findIdByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
 
         // Act
         Optional<User> result = userService.findByEmail("nonexistent@example.com");
 
         // Assert
         assertFalse(result.isPresent());
-        verify(userRepository, times(1)).findByEmail("nonexistent@example.com");
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void findByEmail_WithStaleCachedId_ShouldFallBackToRepository() {
+        // Arrange
+        when(userRepository.findIdByEmail("jane@example.com")).thenReturn(Optional.of(1L));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(userRepository.findByEmail("jane@example.com")).thenReturn(Optional.of(user2));
+
+        // Act
+        Optional<User> result = userService.findByEmail("jane@example.com");
+
+        // Assert
+        assertEquals(Optional.of(user2), result);
     }
-}
\ No newline at end of file
+}